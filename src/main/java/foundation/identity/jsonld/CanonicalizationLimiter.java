@@ -0,0 +1,74 @@
+package foundation.identity.jsonld;
+
+import com.apicatalog.rdf.api.RdfConsumerException;
+import com.apicatalog.rdf.api.RdfQuadConsumer;
+import com.apicatalog.rdf.canon.RdfCanonTicker;
+
+import java.util.HashSet;
+import java.util.Set;
+
+final class CanonicalizationLimiter implements RdfQuadConsumer, RdfCanonTicker {
+
+	private final CanonicalizationLimits limits;
+	private final RdfQuadConsumer delegate;
+	private final long deadline;
+	private final Set<String> blankNodes;
+	private int quads;
+	private long steps;
+
+	CanonicalizationLimiter(CanonicalizationLimits limits, RdfQuadConsumer delegate) {
+		this.limits = limits;
+		this.delegate = delegate;
+		this.deadline = limits.getTimeout() == null ? Long.MAX_VALUE : System.nanoTime() + limits.getTimeout().toNanos();
+		this.blankNodes = limits.getMaxBlankNodes() == CanonicalizationLimits.UNLIMITED ? null : new HashSet<>();
+		this.quads = 0;
+		this.steps = 0;
+	}
+
+	@Override
+	public RdfQuadConsumer quad(String subject, String predicate, String object, String datatype, String language, String direction, String graph) throws RdfConsumerException {
+		try {
+			if (this.limits.getMaxQuads() != CanonicalizationLimits.UNLIMITED && ++this.quads > this.limits.getMaxQuads()) {
+				throw new JsonLDLimitExceededException("Maximum number of quads exceeded: " + this.limits.getMaxQuads());
+			}
+			if (this.blankNodes != null) {
+				if (RdfQuadConsumer.isBlank(subject)) this.blankNodes.add(subject);
+				if (! RdfQuadConsumer.isLiteral(datatype, language, direction) && RdfQuadConsumer.isBlank(object)) this.blankNodes.add(object);
+				if (graph != null && RdfQuadConsumer.isBlank(graph)) this.blankNodes.add(graph);
+				if (this.blankNodes.size() > this.limits.getMaxBlankNodes()) {
+					throw new JsonLDLimitExceededException("Maximum number of blank nodes exceeded: " + this.limits.getMaxBlankNodes());
+				}
+			}
+			this.checkDeadline();
+		} catch (JsonLDLimitExceededException ex) {
+			throw new RdfConsumerException(ex.getMessage(), ex);
+		}
+		this.delegate.quad(subject, predicate, object, datatype, language, direction, graph);
+		return this;
+	}
+
+	@Override
+	public void tick() throws IllegalStateException {
+		try {
+			if (this.limits.getMaxCanonicalizationSteps() != CanonicalizationLimits.UNLIMITED && ++this.steps > this.limits.getMaxCanonicalizationSteps()) {
+				throw new JsonLDLimitExceededException("Maximum number of canonicalization steps exceeded: " + this.limits.getMaxCanonicalizationSteps());
+			}
+			this.checkDeadline();
+		} catch (JsonLDLimitExceededException ex) {
+			throw new IllegalStateException(ex.getMessage(), ex);
+		}
+	}
+
+	private void checkDeadline() throws JsonLDLimitExceededException {
+		if (this.deadline != Long.MAX_VALUE && System.nanoTime() - this.deadline > 0) {
+			throw new JsonLDLimitExceededException("Canonicalization timeout exceeded: " + this.limits.getTimeout());
+		}
+	}
+
+	static JsonLDLimitExceededException findLimitExceeded(Throwable ex) {
+		for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+			if (cause instanceof JsonLDLimitExceededException limitExceededException) return limitExceededException;
+		}
+		return null;
+	}
+}
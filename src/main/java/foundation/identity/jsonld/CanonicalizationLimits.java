@@ -0,0 +1,48 @@
+package foundation.identity.jsonld;
+
+import java.time.Duration;
+
+public class CanonicalizationLimits {
+
+	public static final int UNLIMITED = -1;
+
+	private final int maxQuads;
+	private final int maxBlankNodes;
+	private final long maxCanonicalizationSteps;
+	private final Duration timeout;
+
+	public CanonicalizationLimits(int maxQuads, int maxBlankNodes, long maxCanonicalizationSteps, Duration timeout) {
+		checkLimit("maxQuads", maxQuads);
+		checkLimit("maxBlankNodes", maxBlankNodes);
+		checkLimit("maxCanonicalizationSteps", maxCanonicalizationSteps);
+		if (timeout != null && timeout.isNegative()) throw new IllegalArgumentException("Invalid timeout: " + timeout);
+		this.maxQuads = maxQuads;
+		this.maxBlankNodes = maxBlankNodes;
+		this.maxCanonicalizationSteps = maxCanonicalizationSteps;
+		this.timeout = timeout;
+	}
+
+	private static void checkLimit(String name, long limit) {
+		if (limit != UNLIMITED && limit <= 0) throw new IllegalArgumentException("Invalid " + name + " (must be positive or UNLIMITED): " + limit);
+	}
+
+	/*
+	 * Getters
+	 */
+
+	public int getMaxQuads() {
+		return this.maxQuads;
+	}
+
+	public int getMaxBlankNodes() {
+		return this.maxBlankNodes;
+	}
+
+	public long getMaxCanonicalizationSteps() {
+		return this.maxCanonicalizationSteps;
+	}
+
+	public Duration getTimeout() {
+		return this.timeout;
+	}
+}
@@ -0,0 +1,99 @@
+package foundation.identity.jsonld;
+
+import com.apicatalog.rdf.api.RdfConsumerException;
+import com.apicatalog.rdf.api.RdfQuadConsumer;
+import com.apicatalog.rdf.canon.RdfCanon;
+import com.apicatalog.rdf.canon.RdfCanonTicker;
+import com.apicatalog.rdf.nquads.NQuadsWriter;
+
+import java.io.StringWriter;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+final class CanonicalizationWorkspace implements RdfQuadConsumer {
+
+	private static final int MAX_POOLED = Runtime.getRuntime().availableProcessors() * 2;
+	private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+	private static final int MAX_RETAINED_QUADS = 1024;
+
+	private static final Queue<CanonicalizationWorkspace> pool = new ConcurrentLinkedQueue<>();
+	private static final AtomicInteger pooled = new AtomicInteger();
+
+	private final MessageDigest messageDigest;
+	private final StringWriter stringWriter;
+	private final RdfQuadConsumer nQuadsWriter;
+	private final List<String[]> quads;
+	private boolean blankNodes;
+
+	private CanonicalizationWorkspace() {
+		try {
+			this.messageDigest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex.getMessage(), ex);
+		}
+		this.stringWriter = new StringWriter();
+		this.nQuadsWriter = new NQuadsWriter(this.stringWriter);
+		this.quads = new ArrayList<>();
+		this.blankNodes = false;
+	}
+
+	static CanonicalizationWorkspace acquire() {
+		CanonicalizationWorkspace workspace = pool.poll();
+		if (workspace == null) return new CanonicalizationWorkspace();
+		pooled.decrementAndGet();
+		return workspace;
+	}
+
+	void release() {
+		if (this.stringWriter.getBuffer().capacity() > MAX_RETAINED_BUFFER) return;
+		if (this.quads.size() > MAX_RETAINED_QUADS) return;
+		this.messageDigest.reset();
+		this.stringWriter.getBuffer().setLength(0);
+		this.quads.clear();
+		this.blankNodes = false;
+		if (pooled.incrementAndGet() > MAX_POOLED) {
+			pooled.decrementAndGet();
+			return;
+		}
+		pool.offer(this);
+	}
+
+	@Override
+	public RdfQuadConsumer quad(String subject, String predicate, String object, String datatype, String language, String direction, String graph) {
+		if (RdfQuadConsumer.isBlank(subject)) this.blankNodes = true;
+		if (! RdfQuadConsumer.isLiteral(datatype, language, direction) && RdfQuadConsumer.isBlank(object)) this.blankNodes = true;
+		if (graph != null && RdfQuadConsumer.isBlank(graph)) this.blankNodes = true;
+		this.quads.add(new String[] { subject, predicate, object, datatype, language, direction, graph });
+		return this;
+	}
+
+	void canonicalize(RdfCanonTicker ticker) throws RdfConsumerException {
+		if (this.blankNodes) {
+			RdfCanon rdfCanon = RdfCanon.create(this.messageDigest, ticker);
+			for (String[] quad : this.quads) rdfCanon.quad(quad[0], quad[1], quad[2], quad[3], quad[4], quad[5], quad[6]);
+			rdfCanon.provide(this.nQuadsWriter);
+		} else {
+			String[] nquads = new String[this.quads.size()];
+			for (int i = 0; i < nquads.length; i++) {
+				String[] quad = this.quads.get(i);
+				nquads[i] = NQuadsWriter.nquad(quad[0], quad[1], quad[2], quad[3], quad[4], quad[5], quad[6]);
+			}
+			Arrays.sort(nquads);
+			StringBuffer buffer = this.stringWriter.getBuffer();
+			for (int i = 0; i < nquads.length; i++) {
+				if (i > 0 && nquads[i].equals(nquads[i - 1])) continue;
+				buffer.append(nquads[i]);
+			}
+		}
+	}
+
+	String getResult() {
+		return this.stringWriter.toString();
+	}
+}
@@ -3,7 +3,6 @@ package foundation.identity.jsonld;
 import com.apicatalog.jsonld.JsonLdError;
 import com.apicatalog.jsonld.document.Document;
 import com.apicatalog.jsonld.document.JsonDocument;
-import com.apicatalog.jsonld.http.DefaultHttpClient;
 import com.apicatalog.jsonld.loader.DocumentLoader;
 import com.apicatalog.jsonld.loader.DocumentLoaderOptions;
 import com.apicatalog.jsonld.loader.FileLoader;
@@ -12,15 +11,55 @@ import com.github.benmanes.caffeine.cache.Cache;
 
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
 
 public class ConfigurableDocumentLoader implements DocumentLoader {
 
-    private static DocumentLoader DEFAULT_HTTP_LOADER;
-    private static DocumentLoader DEFAULT_FILE_LOADER;
+    private static final Logger log = Logger.getLogger(ConfigurableDocumentLoader.class.getName());
+
+    private static volatile DocumentLoader DEFAULT_HTTP_LOADER;
+    private static volatile DocumentLoader DEFAULT_FILE_LOADER;
+
+    private static final class DefaultHttpLoaderHolder {
+        private static final DocumentLoader INSTANCE = new HttpLoader(PooledHttpClient.sharedInstance());
+    }
+
+    private static final class DefaultFileLoaderHolder {
+        private static final DocumentLoader INSTANCE = new FileLoader();
+    }
+
+    // context loads block on I/O, so they get their own small pool of daemon threads instead of the common fork-join pool
+    private static final class DefaultPreloadExecutorHolder {
+        private static final Executor INSTANCE;
+        static {
+            AtomicInteger threadNumber = new AtomicInteger();
+            ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(DEFAULT_PRELOAD_THREADS, DEFAULT_PRELOAD_THREADS, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "jsonld-context-preload-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            threadPoolExecutor.allowCoreThreadTimeOut(true);
+            INSTANCE = threadPoolExecutor;
+        }
+    }
 
     private DocumentLoader httpLoader;
     private DocumentLoader fileLoader;
@@ -32,10 +71,22 @@ public class ConfigurableDocumentLoader implements DocumentLoader {
 
     private Map<URI, JsonDocument> localCache = new HashMap<>();
     private Cache<URI, Document> remoteCache = null;
+    private NegativeResultCache negativeResultCache = null;
+    private DocumentCacheStatistics documentCacheStatistics = null;
+    private ContextDependencyGraph contextDependencyGraph = null;
+    private boolean preloadDependencies = false;
+    private final AtomicBoolean preloadWithoutCacheLogged = new AtomicBoolean();
+    private Executor preloadExecutor = null;
+    private Duration preloadTimeout = DEFAULT_PRELOAD_TIMEOUT;
+    private final Set<URI> preloading = ConcurrentHashMap.newKeySet();
     private List<URI> httpContexts = new ArrayList<>();
     private List<URI> httpsContexts = new ArrayList<>();
     private List<URI> fileContexts = new ArrayList<>();
 
+    public static final long DEFAULT_REMOTE_CACHE_MAXIMUM_BYTES = 16L * 1024 * 1024;
+    public static final int DEFAULT_PRELOAD_THREADS = 4;
+    public static final Duration DEFAULT_PRELOAD_TIMEOUT = Duration.ofSeconds(30);
+
     public static final DocumentLoader DOCUMENT_LOADER;
 
     static {
@@ -44,13 +95,17 @@ public class ConfigurableDocumentLoader implements DocumentLoader {
     }
 
     public static DocumentLoader getDefaultHttpLoader() {
-        if (DEFAULT_HTTP_LOADER == null) DEFAULT_HTTP_LOADER = new HttpLoader(DefaultHttpClient.defaultInstance());
-        return DEFAULT_HTTP_LOADER;
+        DocumentLoader defaultHttpLoader = DEFAULT_HTTP_LOADER;
+        return defaultHttpLoader != null ? defaultHttpLoader : DefaultHttpLoaderHolder.INSTANCE;
     }
 
     public static DocumentLoader getDefaultFileLoader() {
-        if (DEFAULT_FILE_LOADER == null) DEFAULT_FILE_LOADER = new FileLoader();
-        return DEFAULT_FILE_LOADER;
+        DocumentLoader defaultFileLoader = DEFAULT_FILE_LOADER;
+        return defaultFileLoader != null ? defaultFileLoader : DefaultFileLoaderHolder.INSTANCE;
+    }
+
+    public static Executor getDefaultPreloadExecutor() {
+        return DefaultPreloadExecutorHolder.INSTANCE;
     }
 
     public static void setDefaultHttpLoader(DocumentLoader defaultHttpLoader) {
@@ -73,47 +128,228 @@ public class ConfigurableDocumentLoader implements DocumentLoader {
     @Override
     public Document loadDocument(URI url, DocumentLoaderOptions options) throws JsonLdError {
 
+        Document document = this.loadContextDocument(url, options);
+
+        ContextDependencyGraph contextDependencyGraph = this.getContextDependencyGraph();
+        if (document != null && contextDependencyGraph != null && ! contextDependencyGraph.contains(url)) {
+            Set<URI> dependencies = contextDependencyGraph.record(url, document);
+            if (dependencies != null && this.isPreloadDependencies()) this.preload(dependencies);
+        }
+
+        return document;
+    }
+
+    private Document loadContextDocument(URI url, DocumentLoaderOptions options) throws JsonLdError {
+
         if (this.isEnableLocalCache() && this.getLocalCache().containsKey(url)) {
             return this.getLocalCache().get(url);
         }
+
+        NegativeResultCache negativeResultCache = this.getNegativeResultCache();
+        if (negativeResultCache != null) {
+            NegativeResultCache.Entry entry = negativeResultCache.getIfPresent(url);
+            if (entry != null) {
+                if (entry.getError() != null) throw entry.getError();
+                return null;
+            }
+        }
+
+        Document document;
+        try {
+            document = this.loadRemoteDocument(url, options);
+        } catch (JsonLdError ex) {
+            if (negativeResultCache != null) negativeResultCache.failed(url, ex);
+            throw ex;
+        }
+
+        // only URIs that no enabled scheme accepts are logged, not the ones outside an allow list
+        if (document == null) {
+            String message = this.isSchemeEnabled(url) ? null : "Cannot load context: " + url;
+            if (negativeResultCache != null) negativeResultCache.rejected(url, message);
+            else if (message != null) log.warning(message);
+        }
+        return document;
+    }
+
+    private boolean isSchemeEnabled(URI url) {
+        return (this.isEnableHttp() && "http".equalsIgnoreCase(url.getScheme()))
+                || (this.isEnableHttps() && "https".equalsIgnoreCase(url.getScheme()))
+                || (this.isEnableFile() && "file".equalsIgnoreCase(url.getScheme()));
+    }
+
+    private Document loadRemoteDocument(URI url, DocumentLoaderOptions options) throws JsonLdError {
+
         if (this.isEnableHttp() && "http".equalsIgnoreCase(url.getScheme())) {
             if (!this.getHttpContexts().isEmpty() && !this.getHttpContexts().contains(url)) return null;
             DocumentLoader httpLoader = this.getHttpLoader();
             if (httpLoader == null) httpLoader = getDefaultHttpLoader();
-            Document document = this.getRemoteCache() == null ? null : this.getRemoteCache().getIfPresent(url);
-            if (document == null) {
-                document = httpLoader.loadDocument(url, options);
-                if (this.getRemoteCache() != null) this.getRemoteCache().put(url, document);
-            }
-            return document;
+            return this.loadCachedDocument(httpLoader, url, options);
         }
         if (this.isEnableHttps() && "https".equalsIgnoreCase(url.getScheme())) {
             if (!this.getHttpsContexts().isEmpty() && !this.getHttpsContexts().contains(url)) return null;
             DocumentLoader httpLoader = this.getHttpLoader();
             if (httpLoader == null) httpLoader = getDefaultHttpLoader();
-            Document document = this.getRemoteCache() == null ? null : this.getRemoteCache().getIfPresent(url);
-            if (document == null) {
-                document = httpLoader.loadDocument(url, options);
-                if (this.getRemoteCache() != null) this.getRemoteCache().put(url, document);
-            }
-            return document;
+            return this.loadCachedDocument(httpLoader, url, options);
         }
         if (this.isEnableFile() && "file".equalsIgnoreCase(url.getScheme())) {
             if (!this.getFileContexts().isEmpty() && !this.getFileContexts().contains(url)) return null;
             DocumentLoader fileLoader = this.getFileLoader();
             if (fileLoader == null) fileLoader = getDefaultFileLoader();
-            Document document = this.getRemoteCache() == null ? null : this.getRemoteCache().getIfPresent(url);
-            if (document == null) {
-                document = fileLoader.loadDocument(url, options);
-                if (this.getRemoteCache() != null) this.getRemoteCache().put(url, document);
-            }
-            return document;
+            return this.loadCachedDocument(fileLoader, url, options);
         }
 
-        Logger.getLogger(this.getClass().getName()).warning("Cannot load context: " + url);
         return null;
     }
 
+    private Document loadCachedDocument(DocumentLoader documentLoader, URI url, DocumentLoaderOptions options) throws JsonLdError {
+
+        // a remote document cache revalidates its documents itself, which the remote cache in front of it would prevent
+        RemoteDocumentCache remoteDocumentCache = documentLoader instanceof RemoteDocumentCache cache ? cache : null;
+        Cache<URI, Document> remoteCache = remoteDocumentCache == null ? this.getRemoteCache() : null;
+        DocumentCacheStatistics documentCacheStatistics = this.getDocumentCacheStatistics();
+
+        Document document = remoteCache == null ? null : remoteCache.getIfPresent(url);
+        if (document != null) {
+            if (documentCacheStatistics != null) documentCacheStatistics.recordHit(url);
+            return document;
+        }
+
+        boolean cached = remoteDocumentCache != null && remoteDocumentCache.isCached(url, options);
+        long start = System.nanoTime();
+        document = documentLoader.loadDocument(url, options);
+        if (documentCacheStatistics != null && document != null) {
+            if (cached) documentCacheStatistics.recordHit(url);
+            else documentCacheStatistics.recordLoad(url, document, System.nanoTime() - start);
+        }
+        if (remoteCache != null && document != null) remoteCache.put(url, document);
+        return document;
+    }
+
+    /*
+     * Context dependencies
+     */
+
+    private void preload(Collection<URI> urls) {
+
+        // without a cache, preloaded documents would be loaded again when they are needed
+        if (this.getRemoteCache() == null && this.getRemoteDocumentCache() == null) {
+            if (this.preloadWithoutCacheLogged.compareAndSet(false, true)) log.warning("Context dependencies are not preloaded, because no remote cache is set.");
+            return;
+        }
+
+        for (URI url : urls) {
+            if (this.getContextDependencyGraph().contains(url) || ! this.preloading.add(url)) continue;
+            this.preloadExecutor().execute(() -> {
+                try {
+                    this.loadDocument(url, new DocumentLoaderOptions());
+                } catch (JsonLdError | RuntimeException ex) {
+                    log.fine("Cannot preload context " + url + ": " + ex.getMessage());
+                } finally {
+                    this.preloading.remove(url);
+                }
+            });
+        }
+    }
+
+    public Set<URI> getContextClosure(Collection<URI> rootContexts) {
+        return this.getContextClosure(rootContexts, null);
+    }
+
+    // contexts that were loaded, or whose dependencies are known from the graph, are also added to loaded
+    Set<URI> getContextClosure(Collection<URI> rootContexts, Set<URI> loaded) {
+
+        ContextDependencyGraph contextDependencyGraph = this.getContextDependencyGraph();
+        Set<URI> closure = new LinkedHashSet<>();
+        List<URI> level = new ArrayList<>(rootContexts);
+        long deadline = System.nanoTime() + this.getPreloadTimeout().toNanos();
+
+        // load each level of the graph in parallel, then continue with the newly discovered references
+        while (! level.isEmpty()) {
+            level.removeIf(url -> ! closure.add(url));
+            List<CompletableFuture<Set<URI>>> futures = new ArrayList<>(level.size());
+            for (URI url : level) {
+                Set<URI> dependencies = contextDependencyGraph == null ? null : contextDependencyGraph.getDependencies(url);
+                futures.add(dependencies != null ? CompletableFuture.completedFuture(dependencies) : CompletableFuture.supplyAsync(() -> this.loadDependencies(url), this.preloadExecutor()));
+            }
+            List<URI> urls = level;
+            level = new ArrayList<>();
+            for (int i = 0; i < futures.size(); i++) {
+                // contexts that cannot be loaded in time are left in the closure, but their dependencies are not followed
+                try {
+                    Set<URI> dependencies = futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    if (dependencies == null) continue;
+                    if (loaded != null) loaded.add(urls.get(i));
+                    level.addAll(dependencies);
+                } catch (TimeoutException ex) {
+                    log.warning("Timeout while loading context dependencies of " + urls.get(i));
+                } catch (ExecutionException ex) {
+                    log.fine("Cannot load context dependencies: " + ex.getMessage());
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return closure;
+                }
+            }
+        }
+
+        return closure;
+    }
+
+    // null if the context cannot be loaded
+    private Set<URI> loadDependencies(URI url) {
+        try {
+            Document document = this.loadDocument(url, new DocumentLoaderOptions());
+            if (document == null) return null;
+            Set<URI> dependencies = this.getContextDependencyGraph() == null ? null : this.getContextDependencyGraph().getDependencies(url);
+            return dependencies != null ? dependencies : ContextDependencyGraph.findReferences(url, document);
+        } catch (JsonLdError ex) {
+            return null;
+        }
+    }
+
+    /*
+     * Weighted remote cache
+     */
+
+    public void enableWeightedRemoteCache(long maximumBytes) {
+        DocumentCacheStatistics documentCacheStatistics = new DocumentCacheStatistics();
+        this.setRemoteCache(documentCacheStatistics.newWeightedCache(maximumBytes));
+        this.setDocumentCacheStatistics(documentCacheStatistics);
+    }
+
+    public void enableWeightedRemoteCache() {
+        this.enableWeightedRemoteCache(DEFAULT_REMOTE_CACHE_MAXIMUM_BYTES);
+    }
+
+    /*
+     * Remote document cache
+     */
+
+    public void enableRemoteDocumentCache() {
+        this.setRemoteDocumentCache(new RemoteDocumentCache(PooledHttpClient.sharedInstance()));
+    }
+
+    /*
+     * Context dependency graph
+     */
+
+    public void enableContextDependencyGraph() {
+        this.setContextDependencyGraph(new ContextDependencyGraph());
+    }
+
+    /*
+     * Negative result cache
+     */
+
+    public void enableNegativeResultCache() {
+        this.setNegativeResultCache(new NegativeResultCache());
+    }
+
+    // cached failures and rejections may no longer apply once the loaders or the allowed contexts change
+    private void configurationChanged() {
+        NegativeResultCache negativeResultCache = this.getNegativeResultCache();
+        if (negativeResultCache != null) negativeResultCache.invalidateAll();
+    }
+
     /*
      * Getters and setters
      */
@@ -124,6 +360,7 @@ public class ConfigurableDocumentLoader implements DocumentLoader {
 
     public void setHttpLoader(DocumentLoader httpLoader) {
         this.httpLoader = httpLoader;
+        this.configurationChanged();
     }
 
     public DocumentLoader getFileLoader() {
@@ -132,6 +369,7 @@ public class ConfigurableDocumentLoader implements DocumentLoader {
 
     public void setFileLoader(DocumentLoader fileLoader) {
         this.fileLoader = fileLoader;
+        this.configurationChanged();
     }
 
     public boolean isEnableLocalCache() {
@@ -148,6 +386,7 @@ public class ConfigurableDocumentLoader implements DocumentLoader {
 
     public void setEnableHttp(boolean enableHttp) {
         this.enableHttp = enableHttp;
+        this.configurationChanged();
     }
 
     public boolean isEnableHttps() {
@@ -156,6 +395,7 @@ public class ConfigurableDocumentLoader implements DocumentLoader {
 
     public void setEnableHttps(boolean enableHttps) {
         this.enableHttps = enableHttps;
+        this.configurationChanged();
     }
 
     public boolean isEnableFile() {
@@ -164,6 +404,7 @@ public class ConfigurableDocumentLoader implements DocumentLoader {
 
     public void setEnableFile(boolean enableFile) {
         this.enableFile = enableFile;
+        this.configurationChanged();
     }
 
     public Map<URI, JsonDocument> getLocalCache() {
@@ -172,6 +413,7 @@ public class ConfigurableDocumentLoader implements DocumentLoader {
 
     public void setLocalCache(Map<URI, JsonDocument> localCache) {
         this.localCache = localCache;
+        this.configurationChanged();
     }
 
     public Cache<URI, Document> getRemoteCache() {
@@ -180,6 +422,72 @@ public class ConfigurableDocumentLoader implements DocumentLoader {
 
     public void setRemoteCache(Cache<URI, Document> remoteCache) {
         this.remoteCache = remoteCache;
+        this.configurationChanged();
+    }
+
+    // the remote document cache loads http and https documents itself, so it is kept as the http loader instead of next to it
+    public RemoteDocumentCache getRemoteDocumentCache() {
+        return this.getHttpLoader() instanceof RemoteDocumentCache remoteDocumentCache ? remoteDocumentCache : null;
+    }
+
+    public void setRemoteDocumentCache(RemoteDocumentCache remoteDocumentCache) {
+        if (remoteDocumentCache == null && this.getRemoteDocumentCache() == null) return;
+        this.setHttpLoader(remoteDocumentCache);
+    }
+
+    public ContextDependencyGraph getContextDependencyGraph() {
+        return this.contextDependencyGraph;
+    }
+
+    public void setContextDependencyGraph(ContextDependencyGraph contextDependencyGraph) {
+        this.contextDependencyGraph = contextDependencyGraph;
+    }
+
+    public boolean isPreloadDependencies() {
+        return this.preloadDependencies;
+    }
+
+    // dependencies are found while recording them in the graph, so preloading needs one
+    public void setPreloadDependencies(boolean preloadDependencies) {
+        this.preloadDependencies = preloadDependencies;
+        if (preloadDependencies && this.getContextDependencyGraph() == null) this.enableContextDependencyGraph();
+    }
+
+    public Executor getPreloadExecutor() {
+        return this.preloadExecutor;
+    }
+
+    public void setPreloadExecutor(Executor preloadExecutor) {
+        this.preloadExecutor = preloadExecutor;
+    }
+
+    private Executor preloadExecutor() {
+        Executor preloadExecutor = this.getPreloadExecutor();
+        return preloadExecutor != null ? preloadExecutor : getDefaultPreloadExecutor();
+    }
+
+    public Duration getPreloadTimeout() {
+        return this.preloadTimeout;
+    }
+
+    public void setPreloadTimeout(Duration preloadTimeout) {
+        this.preloadTimeout = preloadTimeout;
+    }
+
+    public DocumentCacheStatistics getDocumentCacheStatistics() {
+        return this.documentCacheStatistics;
+    }
+
+    public void setDocumentCacheStatistics(DocumentCacheStatistics documentCacheStatistics) {
+        this.documentCacheStatistics = documentCacheStatistics;
+    }
+
+    public NegativeResultCache getNegativeResultCache() {
+        return this.negativeResultCache;
+    }
+
+    public void setNegativeResultCache(NegativeResultCache negativeResultCache) {
+        this.negativeResultCache = negativeResultCache;
     }
 
     public List<URI> getHttpContexts() {
@@ -188,6 +496,7 @@ public class ConfigurableDocumentLoader implements DocumentLoader {
 
     public void setHttpContexts(List<URI> httpContexts) {
         this.httpContexts = httpContexts;
+        this.configurationChanged();
     }
 
     public List<URI> getHttpsContexts() {
@@ -196,6 +505,7 @@ public class ConfigurableDocumentLoader implements DocumentLoader {
 
     public void setHttpsContexts(List<URI> httpsContexts) {
         this.httpsContexts = httpsContexts;
+        this.configurationChanged();
     }
 
     public List<URI> getFileContexts() {
@@ -204,5 +514,6 @@ public class ConfigurableDocumentLoader implements DocumentLoader {
 
     public void setFileContexts(List<URI> fileContexts) {
         this.fileContexts = fileContexts;
+        this.configurationChanged();
     }
 }
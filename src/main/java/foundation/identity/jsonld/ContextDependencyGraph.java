@@ -0,0 +1,130 @@
+package foundation.identity.jsonld;
+
+import com.apicatalog.jsonld.document.Document;
+import com.apicatalog.jsonld.lang.Keywords;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.json.JsonString;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+public class ContextDependencyGraph {
+
+    public static final long DEFAULT_MAXIMUM_SIZE = 10000;
+
+    // bounded, because every context URI a document loader sees is recorded
+    private final Cache<URI, Set<URI>> dependencies;
+
+    public ContextDependencyGraph(long maximumSize) {
+        this(maximumSize, ForkJoinPool.commonPool());
+    }
+
+    public ContextDependencyGraph() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public ContextDependencyGraph(Map<URI, ? extends Collection<URI>> dependencies) {
+        this();
+        this.putAll(dependencies);
+    }
+
+    ContextDependencyGraph(long maximumSize, Executor executor) {
+        this.dependencies = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .executor(executor)
+                .build();
+    }
+
+    /*
+     * Recording dependencies
+     */
+
+    public Set<URI> record(URI url, Document document) {
+        Set<URI> references = findReferences(url, document);
+        return this.dependencies.asMap().putIfAbsent(url, references) == null ? references : null;
+    }
+
+    public void putAll(Map<URI, ? extends Collection<URI>> dependencies) {
+        for (Map.Entry<URI, ? extends Collection<URI>> entry : dependencies.entrySet()) {
+            this.dependencies.put(entry.getKey(), Collections.unmodifiableSet(new LinkedHashSet<>(entry.getValue())));
+        }
+    }
+
+    public void remove(URI url) {
+        this.dependencies.invalidate(url);
+    }
+
+    public void clear() {
+        this.dependencies.invalidateAll();
+    }
+
+    /*
+     * Querying dependencies
+     */
+
+    public boolean contains(URI url) {
+        return this.dependencies.asMap().containsKey(url);
+    }
+
+    public Set<URI> getDependencies(URI url) {
+        return this.dependencies.getIfPresent(url);
+    }
+
+    public Set<URI> getClosure(Collection<URI> rootContexts) {
+        Set<URI> closure = new LinkedHashSet<>();
+        Deque<URI> pending = new ArrayDeque<>(rootContexts);
+        while (! pending.isEmpty()) {
+            URI url = pending.removeFirst();
+            if (! closure.add(url)) continue;
+            Set<URI> dependencies = this.dependencies.getIfPresent(url);
+            if (dependencies != null) pending.addAll(dependencies);
+        }
+        return closure;
+    }
+
+    public Map<URI, Set<URI>> toMap() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(this.dependencies.asMap()));
+    }
+
+    /*
+     * Finding references
+     */
+
+    public static Set<URI> findReferences(URI url, Document document) {
+
+        Object content = document == null ? null : document.getJsonContent().orElse(null);
+        if (content == null) return Collections.emptySet();
+
+        URI baseUri = document.getDocumentUrl() != null ? document.getDocumentUrl() : url;
+        Set<URI> references = new LinkedHashSet<>();
+        JsonLDTraversal.traverse(content, new JsonLDTraversal.Visitor() {
+
+            @Override
+            public JsonLDTraversal.Result visitMap(JsonLDTraversal.Path path, Map<String, ?> map) {
+                addReferences(references, baseUri, map.get(Keywords.CONTEXT));
+                addReferences(references, baseUri, map.get(Keywords.IMPORT));
+                return JsonLDTraversal.Result.CONTINUE;
+            }
+        });
+        references.remove(url);
+        return Collections.unmodifiableSet(references);
+    }
+
+    private static void addReferences(Set<URI> references, URI baseUri, Object value) {
+        if (value instanceof List<?> list) {
+            for (Object element : list) addReferences(references, baseUri, element);
+            return;
+        }
+        String reference = value instanceof JsonString jsonString ? jsonString.getString() : value instanceof String string ? string : null;
+        if (reference == null) return;
+        try {
+            URI uri = baseUri == null ? new URI(reference) : baseUri.resolve(reference);
+            if (uri.isAbsolute()) references.add(uri);
+        } catch (URISyntaxException | IllegalArgumentException ignored) {
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package foundation.identity.jsonld;
+
+import com.apicatalog.jsonld.JsonLdError;
+import com.apicatalog.jsonld.JsonLdErrorCode;
+import com.apicatalog.jsonld.document.Document;
+import com.apicatalog.jsonld.document.JsonDocument;
+import com.apicatalog.jsonld.http.media.MediaType;
+import com.apicatalog.jsonld.loader.DocumentLoader;
+import com.apicatalog.jsonld.loader.DocumentLoaderOptions;
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.*;
+
+public class ContextSnapshot {
+
+    private static final String TERM_VERSION = "version";
+    private static final String TERM_CONTEXT_LISTS = "contextLists";
+    private static final String TERM_DOCUMENTS = "documents";
+    private static final long VERSION = 1;
+
+    private final List<List<URI>> contextLists;
+    private final Map<URI, Map<String, Object>> documents;
+
+    private ContextSnapshot(List<List<URI>> contextLists, Map<URI, Map<String, Object>> documents) {
+        this.contextLists = contextLists;
+        this.documents = documents;
+    }
+
+    /*
+     * Creating a snapshot
+     */
+
+    public static ContextSnapshot create(DocumentLoader documentLoader, Collection<List<URI>> contextLists) throws JsonLdError {
+
+        List<List<URI>> snapshotContextLists = new ArrayList<>();
+        Map<URI, Map<String, Object>> documents = new LinkedHashMap<>();
+
+        for (List<URI> contextList : contextLists) {
+            snapshotContextLists.add(List.copyOf(contextList));
+            Deque<URI> pending = new ArrayDeque<>(contextList);
+            while (! pending.isEmpty()) {
+                URI url = pending.removeFirst();
+                if (documents.containsKey(url)) continue;
+                Document document = documentLoader.loadDocument(url, new DocumentLoaderOptions());
+                Object content = document == null ? null : document.getJsonContent().orElse(null);
+                if (! (content instanceof JsonObject jsonObject)) throw new JsonLdError(JsonLdErrorCode.LOADING_REMOTE_CONTEXT_FAILED, "Cannot load context for snapshot: " + url);
+                documents.put(url, JsonLDObject.readJson(jsonObject.toString()));
+                pending.addAll(ContextDependencyGraph.findReferences(url, document));
+            }
+        }
+
+        return new ContextSnapshot(Collections.unmodifiableList(snapshotContextLists), Collections.unmodifiableMap(documents));
+    }
+
+    /*
+     * Serialization
+     */
+
+    public void write(OutputStream outputStream) throws IOException {
+
+        List<Object> contextLists = new ArrayList<>();
+        for (List<URI> contextList : this.contextLists) contextLists.add(contextList.stream().map(URI::toString).toList());
+        Map<String, Object> documents = new LinkedHashMap<>();
+        for (Map.Entry<URI, Map<String, Object>> entry : this.documents.entrySet()) documents.put(entry.getKey().toString(), entry.getValue());
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put(TERM_VERSION, VERSION);
+        snapshot.put(TERM_CONTEXT_LISTS, contextLists);
+        snapshot.put(TERM_DOCUMENTS, documents);
+        JsonLDBinaryCodec.write(snapshot, outputStream);
+    }
+
+    public byte[] write() throws IOException {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        this.write(byteArrayOutputStream);
+        return byteArrayOutputStream.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    public static ContextSnapshot read(InputStream inputStream) throws IOException {
+
+        Map<String, Object> snapshot = JsonLDBinaryCodec.read(inputStream);
+        if (! (snapshot.get(TERM_VERSION) instanceof Number version) || version.longValue() != VERSION) throw new IOException("Unsupported context snapshot version: " + snapshot.get(TERM_VERSION));
+
+        try {
+            List<List<URI>> contextLists = new ArrayList<>();
+            for (List<String> contextList : (List<List<String>>) snapshot.get(TERM_CONTEXT_LISTS)) contextLists.add(contextList.stream().map(URI::create).toList());
+            Map<URI, Map<String, Object>> documents = new LinkedHashMap<>();
+            for (Map.Entry<String, Map<String, Object>> entry : ((Map<String, Map<String, Object>>) snapshot.get(TERM_DOCUMENTS)).entrySet()) documents.put(URI.create(entry.getKey()), entry.getValue());
+            return new ContextSnapshot(Collections.unmodifiableList(contextLists), Collections.unmodifiableMap(documents));
+        } catch (ClassCastException | NullPointerException | IllegalArgumentException ex) {
+            throw new IOException("Invalid context snapshot: " + ex.getMessage(), ex);
+        }
+    }
+
+    public static ContextSnapshot read(byte[] bytes) throws IOException {
+        return read(new ByteArrayInputStream(bytes));
+    }
+
+    /*
+     * Installing a snapshot
+     */
+
+    public Map<URI, JsonDocument> toDocuments() {
+        Map<URI, JsonDocument> jsonDocuments = new LinkedHashMap<>();
+        for (Map.Entry<URI, Map<String, Object>> entry : this.documents.entrySet()) {
+            JsonDocument jsonDocument = JsonDocument.of(MediaType.JSON_LD, Json.createObjectBuilder(entry.getValue()).build());
+            jsonDocument.setDocumentUrl(entry.getKey());
+            jsonDocuments.put(entry.getKey(), jsonDocument);
+        }
+        return jsonDocuments;
+    }
+
+    public void install(ConfigurableDocumentLoader documentLoader) {
+        Map<URI, JsonDocument> jsonDocuments = this.toDocuments();
+        documentLoader.getLocalCache().putAll(jsonDocuments);
+        if (documentLoader.getContextDependencyGraph() != null) {
+            for (Map.Entry<URI, JsonDocument> entry : jsonDocuments.entrySet()) documentLoader.getContextDependencyGraph().record(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /*
+     * Getters
+     */
+
+    public List<List<URI>> getContextLists() {
+        return this.contextLists;
+    }
+
+    public Set<URI> getContexts() {
+        return this.documents.keySet();
+    }
+}
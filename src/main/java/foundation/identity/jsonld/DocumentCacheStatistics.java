@@ -0,0 +1,187 @@
+package foundation.identity.jsonld;
+
+import com.apicatalog.jsonld.document.Document;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import jakarta.json.JsonNumber;
+import jakarta.json.JsonString;
+
+import java.lang.ref.WeakReference;
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+public class DocumentCacheStatistics {
+
+    public static final long DEFAULT_MAXIMUM_ENTRIES = 10000;
+
+    // rough per-object costs on a 64-bit JVM with compressed oops
+    private static final long OBJECT_SIZE = 16;
+    private static final long STRING_SIZE = 40;
+    private static final long MAP_ENTRY_SIZE = 48;
+    private static final long REFERENCE_SIZE = 8;
+    private static final long NUMBER_SIZE = 40;
+    private static final long UNKNOWN_DOCUMENT_SIZE = 1024;
+
+    // bounded, because only a weighted cache created here removes the entries of documents it evicts
+    private final Cache<URI, Entry> entries;
+
+    public static final class Entry {
+
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder loads = new LongAdder();
+        private volatile long retainedSize;
+        private volatile long valueCount;
+        private volatile long loadNanos;
+        private volatile WeakReference<Document> document;
+
+        private Entry() {
+        }
+
+        public long getHits() {
+            return this.hits.sum();
+        }
+
+        public long getLoads() {
+            return this.loads.sum();
+        }
+
+        public long getRetainedSize() {
+            return this.retainedSize;
+        }
+
+        public long getValueCount() {
+            return this.valueCount;
+        }
+
+        public long getLoadNanos() {
+            return this.loadNanos;
+        }
+    }
+
+    public DocumentCacheStatistics(long maximumEntries) {
+        this(maximumEntries, ForkJoinPool.commonPool());
+    }
+
+    public DocumentCacheStatistics() {
+        this(DEFAULT_MAXIMUM_ENTRIES);
+    }
+
+    DocumentCacheStatistics(long maximumEntries, Executor executor) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maximumEntries)
+                .executor(executor)
+                .build();
+    }
+
+    /*
+     * Creating a weighted cache
+     */
+
+    public Cache<URI, Document> newWeightedCache(long maximumBytes) {
+        return Caffeine.newBuilder()
+                .maximumWeight(maximumBytes)
+                .weigher((URI uri, Document document) -> (int) Math.min(Integer.MAX_VALUE, this.retainedSize(uri, document)))
+                .removalListener((URI uri, Document document, RemovalCause cause) -> {
+                    if (uri != null && cause.wasEvicted()) this.entries.invalidate(uri);
+                })
+                .recordStats()
+                .build();
+    }
+
+    /*
+     * Recording
+     */
+
+    public void recordHit(URI url) {
+        this.entries.get(url, x -> new Entry()).hits.increment();
+    }
+
+    public void recordLoad(URI url, Document document, long loadNanos) {
+        Entry entry = this.entries.get(url, x -> new Entry());
+        long[] estimate = estimate(document);
+        entry.retainedSize = estimate[0];
+        entry.valueCount = estimate[1];
+        entry.loadNanos = loadNanos;
+        entry.document = new WeakReference<>(document);
+        entry.loads.increment();
+    }
+
+    // the document is usually put into the cache right after its load was recorded, so its size is not estimated twice
+    private long retainedSize(URI url, Document document) {
+        Entry entry = this.entries.getIfPresent(url);
+        WeakReference<Document> recorded = entry == null ? null : entry.document;
+        if (recorded != null && recorded.get() == document) return entry.retainedSize;
+        return estimateRetainedSize(document);
+    }
+
+    public Entry getEntry(URI url) {
+        return this.entries.getIfPresent(url);
+    }
+
+    public Map<URI, Entry> getEntries() {
+        return Collections.unmodifiableMap(this.entries.asMap());
+    }
+
+    public long getTotalRetainedSize() {
+        long total = 0;
+        for (Entry entry : this.entries.asMap().values()) total += entry.retainedSize;
+        return total;
+    }
+
+    public void clear() {
+        this.entries.invalidateAll();
+    }
+
+    /*
+     * Size estimation
+     */
+
+    public static long estimateRetainedSize(Document document) {
+        return estimate(document)[0];
+    }
+
+    private static long[] estimate(Document document) {
+
+        Object content = document == null ? null : document.getJsonContent().orElse(null);
+        if (content == null) return new long[] { UNKNOWN_DOCUMENT_SIZE, 0 };
+
+        long[] estimate = new long[] { OBJECT_SIZE, 0 };
+        JsonLDTraversal.traverse(content, new JsonLDTraversal.Visitor() {
+
+            @Override
+            public JsonLDTraversal.Result visitMap(JsonLDTraversal.Path path, Map<String, ?> map) {
+                estimate[0] += OBJECT_SIZE + REFERENCE_SIZE * map.size() * 2;
+                for (String key : map.keySet()) estimate[0] += MAP_ENTRY_SIZE + stringSize(key);
+                estimate[1]++;
+                return JsonLDTraversal.Result.CONTINUE;
+            }
+
+            @Override
+            public JsonLDTraversal.Result visitList(JsonLDTraversal.Path path, List<?> list) {
+                estimate[0] += OBJECT_SIZE + REFERENCE_SIZE * list.size();
+                estimate[1]++;
+                return JsonLDTraversal.Result.CONTINUE;
+            }
+
+            @Override
+            public JsonLDTraversal.Result visitScalar(JsonLDTraversal.Path path, Object value) {
+                if (value instanceof JsonString jsonString) estimate[0] += OBJECT_SIZE + stringSize(jsonString.getString());
+                else if (value instanceof String string) estimate[0] += stringSize(string);
+                else if (value instanceof JsonNumber || value instanceof Number) estimate[0] += NUMBER_SIZE;
+                estimate[1]++;
+                return JsonLDTraversal.Result.CONTINUE;
+            }
+        });
+        return estimate;
+    }
+
+    private static long stringSize(String string) {
+        return STRING_SIZE + string.length();
+    }
+}
@@ -0,0 +1,276 @@
+package foundation.identity.jsonld;
+
+import com.apicatalog.jsonld.loader.DocumentLoader;
+
+import java.io.Reader;
+import java.util.*;
+
+public class ImmutableJsonLDObject extends JsonLDObject {
+
+	private volatile byte[] json = null;
+
+	protected ImmutableJsonLDObject(Map<String, Object> jsonObject) {
+		super((FrozenMap) freeze(jsonObject));
+	}
+
+	protected ImmutableJsonLDObject(Map<String, Object> jsonObject, DocumentLoader documentLoader) {
+		this(jsonObject);
+		super.setDocumentLoader(documentLoader);
+	}
+
+	/*
+	 * Factory methods
+	 */
+
+	public static ImmutableJsonLDObject fromJsonObject(Map<String, Object> jsonObject) {
+		return new ImmutableJsonLDObject(jsonObject);
+	}
+
+	public static ImmutableJsonLDObject fromJsonLDObject(JsonLDObject jsonLDObject) {
+		if (jsonLDObject instanceof ImmutableJsonLDObject immutableJsonLDObject) return immutableJsonLDObject;
+		return new ImmutableJsonLDObject(jsonLDObject.getJsonObject(), jsonLDObject.getDocumentLoader());
+	}
+
+	public static ImmutableJsonLDObject fromJson(Reader reader) {
+		return new ImmutableJsonLDObject(readJson(reader));
+	}
+
+	public static ImmutableJsonLDObject fromJson(String json) {
+		return new ImmutableJsonLDObject(readJson(json));
+	}
+
+	public static ImmutableJsonLDObject fromMap(Map<String, Object> jsonObject) {
+		return new ImmutableJsonLDObject(jsonObject);
+	}
+
+	/*
+	 * Deriving new versions of the JSON-LD object
+	 */
+
+	public ImmutableJsonLDObject with(String term, Object value) {
+		if (term == null || value == null) throw new NullPointerException();
+		Map<String, Object> jsonObject = new LinkedHashMap<>(this.getJsonObject());
+		jsonObject.put(term, value);
+		return this.derive(jsonObject);
+	}
+
+	public ImmutableJsonLDObject withAdded(String term, Object value) {
+		JsonLDObject jsonLdObject = JsonLDObject.fromMap(new LinkedHashMap<>(this.getJsonObject()));
+		JsonLDUtils.jsonLdAdd(jsonLdObject, term, value);
+		return this.derive(jsonLdObject.getJsonObject());
+	}
+
+	public ImmutableJsonLDObject without(String term) {
+		if (! this.getJsonObject().containsKey(term)) return this;
+		Map<String, Object> jsonObject = new LinkedHashMap<>(this.getJsonObject());
+		jsonObject.remove(term);
+		return this.derive(jsonObject);
+	}
+
+	public ImmutableJsonLDObject withDocumentLoader(DocumentLoader documentLoader) {
+		return new ImmutableJsonLDObject(this.getJsonObject(), documentLoader);
+	}
+
+	public JsonLDObject toMutableJsonLDObject() {
+		JsonLDObject jsonLdObject = JsonLDObject.fromMap(thawMap(this.getJsonObject()));
+		jsonLdObject.setDocumentLoader(this.getDocumentLoader());
+		return jsonLdObject;
+	}
+
+	private ImmutableJsonLDObject derive(Map<String, Object> jsonObject) {
+		return new ImmutableJsonLDObject(jsonObject, this.getDocumentLoader());
+	}
+
+	/*
+	 * Getters and setters
+	 */
+
+	@Override
+	public void setDocumentLoader(DocumentLoader documentLoader) {
+		throw new UnsupportedOperationException("JSON-LD object is immutable.");
+	}
+
+	@Override
+	public void setCanonicalizationLimits(CanonicalizationLimits canonicalizationLimits) {
+		throw new UnsupportedOperationException("JSON-LD object is immutable.");
+	}
+
+	@Override
+	public void setDigestEquality(boolean digestEquality) {
+		throw new UnsupportedOperationException("JSON-LD object is immutable.");
+	}
+
+	@Override
+	public void setIncrementalNormalization(boolean incrementalNormalization) {
+		throw new UnsupportedOperationException("JSON-LD object is immutable.");
+	}
+
+	@Override
+	public void setExpansionCaching(boolean expansionCaching) {
+		throw new UnsupportedOperationException("JSON-LD object is immutable.");
+	}
+
+	@Override
+	public void setJsonObjectKeyValue(String key, Object value) {
+		throw new UnsupportedOperationException("JSON-LD object is immutable.");
+	}
+
+	/*
+	 * Writing the JSON-LD object
+	 */
+
+	// the content cannot change, so the serialized form is written once and reused by toJson() and writeJson()
+	@Override
+	byte[] serializedJson() {
+		byte[] json = this.json;
+		if (json == null) {
+			json = writeJsonBytes(this.getJsonObject());
+			this.json = json;
+		}
+		return json;
+	}
+
+	/*
+	 * Tracking modifications
+	 */
+
+	// every mutator calls this before touching the map, so a rejected write leaves the counters and caches alone
+	@Override
+	public void markModified(String term) {
+		throw new UnsupportedOperationException("JSON-LD object is immutable.");
+	}
+
+	/*
+	 * Helper methods
+	 */
+
+	private static Object freeze(Object value) {
+		if (value instanceof FrozenMap || value instanceof FrozenList) {
+			return value;
+		} else if (value instanceof JsonLDObject jsonLdObject) {
+			return freeze(jsonLdObject.getJsonObject());
+		} else if (value instanceof Map<?, ?> map) {
+			Map<String, Object> frozenMap = new LinkedHashMap<>(map.size());
+			for (Map.Entry<?, ?> entry : map.entrySet()) frozenMap.put((String) entry.getKey(), freeze(entry.getValue()));
+			return new FrozenMap(frozenMap);
+		} else if (value instanceof List<?> list) {
+			Object[] frozenList = new Object[list.size()];
+			int i = 0;
+			for (Object entry : list) frozenList[i++] = freeze(entry);
+			return new FrozenList(frozenList);
+		} else {
+			return value;
+		}
+	}
+
+	private static Map<String, Object> thawMap(Map<?, ?> map) {
+		Map<String, Object> jsonObject = new LinkedHashMap<>(map.size());
+		for (Map.Entry<?, ?> entry : map.entrySet()) jsonObject.put((String) entry.getKey(), thaw(entry.getValue()));
+		return jsonObject;
+	}
+
+	private static Object thaw(Object value) {
+		if (value instanceof Map<?, ?> map) {
+			return thawMap(map);
+		} else if (value instanceof List<?> list) {
+			List<Object> jsonArray = new ArrayList<>(list.size());
+			for (Object entry : list) jsonArray.add(thaw(entry));
+			return jsonArray;
+		} else {
+			return value;
+		}
+	}
+
+	private static final class FrozenMap extends AbstractMap<String, Object> {
+
+		private final Map<String, Object> map;
+		private final int hashCode;
+
+		private FrozenMap(Map<String, Object> map) {
+			this.map = Collections.unmodifiableMap(map);
+			this.hashCode = map.hashCode();
+		}
+
+		@Override
+		public Set<Entry<String, Object>> entrySet() {
+			return this.map.entrySet();
+		}
+
+		@Override
+		public Object get(Object key) {
+			return this.map.get(key);
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return this.map.containsKey(key);
+		}
+
+		@Override
+		public int size() {
+			return this.map.size();
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o instanceof FrozenMap that && this.hashCode != that.hashCode) return false;
+			return super.equals(o);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+	}
+
+	private static final class FrozenList extends AbstractList<Object> implements RandomAccess {
+
+		private final Object[] list;
+		private final int hashCode;
+
+		private FrozenList(Object[] list) {
+			this.list = list;
+			this.hashCode = Arrays.hashCode(list);
+		}
+
+		@Override
+		public Object get(int index) {
+			return this.list[index];
+		}
+
+		@Override
+		public int size() {
+			return this.list.length;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o instanceof FrozenList that && this.hashCode != that.hashCode) return false;
+			return super.equals(o);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+	}
+
+	/*
+	 * Object methods
+	 */
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		ImmutableJsonLDObject that = (ImmutableJsonLDObject) o;
+		return this.getJsonObject().equals(that.getJsonObject());
+	}
+
+	@Override
+	public int hashCode() {
+		return this.getJsonObject().hashCode();
+	}
+}
@@ -0,0 +1,194 @@
+package foundation.identity.jsonld;
+
+import com.apicatalog.jsonld.JsonLd;
+import com.apicatalog.jsonld.JsonLdError;
+import com.apicatalog.jsonld.document.JsonDocument;
+import com.apicatalog.jsonld.http.media.MediaType;
+import com.apicatalog.jsonld.lang.Keywords;
+import com.apicatalog.rdf.api.RdfConsumerException;
+import com.apicatalog.rdf.api.RdfQuadConsumer;
+import com.apicatalog.rdf.canon.RdfCanonTicker;
+import com.apicatalog.rdf.nquads.NQuadsWriter;
+import jakarta.json.Json;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonString;
+import jakarta.json.JsonValue;
+
+import java.util.*;
+
+final class IncrementalNormalization {
+
+	private static final int MAX_RESULTS = 8;
+
+	private final Map<String, Partition> partitions;
+	private String partitionsId;
+	private long partitionSerial;
+
+	// the last result for each set of excluded terms, so that alternating between them does not recompute either
+	private final Map<Set<String>, Result> results;
+
+	// the quads of one property of the expanded top-level node, together with the expanded value they were produced from;
+	// nquads holds the sorted N-Quads lines of a partition without blank nodes, which need no relabeling
+	private record Partition(JsonValue value, List<String[]> quads, String[] nquads) {
+	}
+
+	private record Result(byte[] digest, List<Partition> partitions, String result) {
+	}
+
+	IncrementalNormalization() {
+		this.partitions = new HashMap<>();
+		this.partitionsId = null;
+		this.partitionSerial = 0;
+		this.results = new LinkedHashMap<>(MAX_RESULTS * 4 / 3 + 1, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Set<String>, Result> eldest) {
+				return this.size() > MAX_RESULTS;
+			}
+		};
+	}
+
+	/*
+	 * Normalizing
+	 */
+
+	// the same JsonLDObject can be normalized from several threads, and all of the state here is shared between them
+	synchronized String normalize(JsonLDObject jsonLdObject, Set<String> excludedTopLevelTerms) throws JsonLdError, RdfConsumerException {
+
+		excludedTopLevelTerms = excludedTopLevelTerms == null ? Collections.emptySet() : Set.copyOf(excludedTopLevelTerms);
+		Map<String, Object> jsonObject = jsonLdObject.getJsonObject();
+
+		// the map and its nested objects can be changed without going through markModified(), so compare the content itself
+		byte[] digest = JsonLDUtils.jsonLdDigest(jsonObject, excludedTopLevelTerms);
+		Result result = this.results.get(excludedTopLevelTerms);
+		if (result != null && Arrays.equals(digest, result.digest())) return result.result();
+
+		// blank node identifiers can be shared across partitions, which the per-partition relabeling would break
+		for (Map.Entry<String, Object> entry : jsonObject.entrySet()) {
+			if (! excludedTopLevelTerms.contains(entry.getKey()) && containsBlankNodeIdentifier(entry.getValue())) return this.fallBack(excludedTopLevelTerms);
+		}
+
+		// expanding resolves all aliases (e.g. for @id, @type or @graph), so the partitions are keyed by keyword or IRI
+		JsonArray expanded = JsonLd.expand(JsonDocument.of(MediaType.JSON_LD, jsonLdObject.toJsonObject(excludedTopLevelTerms))).options(jsonLdObject.jsonLdOptions()).get();
+		if (expanded.size() != 1 || ! (expanded.get(0) instanceof JsonObject node) || node.size() < 2) return this.fallBack(excludedTopLevelTerms);
+		if (! (node.get(Keywords.ID) instanceof JsonString id) || id.getString().startsWith("_:")) return this.fallBack(excludedTopLevelTerms);
+
+		if (! id.getString().equals(this.partitionsId)) {
+			this.partitions.clear();
+			this.results.clear();
+			this.partitionsId = id.getString();
+		}
+
+		Map<String, Partition> currentPartitions = new LinkedHashMap<>();
+		for (Map.Entry<String, JsonValue> entry : node.entrySet()) {
+			if (Keywords.ID.equals(entry.getKey())) continue;
+			Partition partition = this.partitions.get(entry.getKey());
+			if (partition == null || ! partition.value().equals(entry.getValue())) {
+				partition = this.partition(jsonLdObject, id, entry.getKey(), entry.getValue());
+				if (partition == null) return this.fallBack(excludedTopLevelTerms);
+			}
+			currentPartitions.put(entry.getKey(), partition);
+		}
+		// partitions of properties that are excluded this time stay, so that switching back to including them does not convert them again
+		this.partitions.putAll(currentPartitions);
+
+		List<Partition> quadPartitions = new ArrayList<>(currentPartitions.values());
+		if (result != null && sameIdentities(result.partitions(), quadPartitions)) {
+			this.results.put(excludedTopLevelTerms, new Result(digest, quadPartitions, result.result()));
+			return result.result();
+		}
+
+		String normalized = canonicalize(quadPartitions);
+		this.results.put(excludedTopLevelTerms, new Result(digest, quadPartitions, normalized));
+		return normalized;
+	}
+
+	private static String canonicalize(List<Partition> partitions) throws RdfConsumerException {
+
+		// without blank nodes the canonical form is the sorted, distinct N-Quads lines, and each partition's lines are already sorted
+		if (partitions.stream().allMatch(partition -> partition.nquads() != null)) {
+			String[] nquads = partitions.stream().flatMap(partition -> Arrays.stream(partition.nquads())).toArray(String[]::new);
+			Arrays.sort(nquads);
+			StringBuilder stringBuilder = new StringBuilder();
+			for (int i = 0; i < nquads.length; i++) {
+				if (i > 0 && nquads[i].equals(nquads[i - 1])) continue;
+				stringBuilder.append(nquads[i]);
+			}
+			return stringBuilder.toString();
+		}
+
+		CanonicalizationWorkspace workspace = CanonicalizationWorkspace.acquire();
+		try {
+			for (Partition partition : partitions) {
+				for (String[] quad : partition.quads()) workspace.quad(quad[0], quad[1], quad[2], quad[3], quad[4], quad[5], quad[6]);
+			}
+			workspace.canonicalize(RdfCanonTicker.EMPTY);
+			return workspace.getResult();
+		} finally {
+			workspace.release();
+		}
+	}
+
+	private Partition partition(JsonLDObject jsonLdObject, JsonString id, String property, JsonValue value) throws JsonLdError {
+
+		// the node is already expanded, so converting it to RDF does not process any contexts again
+		JsonObject node = Json.createObjectBuilder().add(Keywords.ID, id).add(property, value).build();
+
+		// blank node labels are only unique within one partition, so make them unique across partitions
+		String blankNodePrefix = "_:p" + (this.partitionSerial++) + "_";
+		List<String[]> quads = new ArrayList<>();
+		Set<String> blankNodeObjects = new HashSet<>();
+		boolean[] blankNodes = new boolean[1];
+		JsonLd.toRdf(JsonDocument.of(MediaType.JSON_LD, Json.createArrayBuilder().add(node).build())).options(jsonLdObject.jsonLdOptions()).provide(new RdfQuadConsumer() {
+			@Override
+			public RdfQuadConsumer quad(String subject, String predicate, String object, String datatype, String language, String direction, String graph) {
+				if (RdfQuadConsumer.isBlank(subject)) { subject = blankNodePrefix + subject.substring(2); blankNodes[0] = true; }
+				if (! RdfQuadConsumer.isLiteral(datatype, language, direction) && RdfQuadConsumer.isBlank(object)) { blankNodeObjects.add(object = blankNodePrefix + object.substring(2)); blankNodes[0] = true; }
+				if (graph != null && RdfQuadConsumer.isBlank(graph)) { graph = blankNodePrefix + graph.substring(2); blankNodes[0] = true; }
+				quads.add(new String[] { subject, predicate, object, datatype, language, direction, graph });
+				return this;
+			}
+		});
+
+		// a blank node graph that nothing in the partition refers to cannot be told apart from one in another partition
+		for (String[] quad : quads) {
+			if (quad[6] != null && RdfQuadConsumer.isBlank(quad[6]) && ! blankNodeObjects.contains(quad[6])) return null;
+		}
+
+		if (blankNodes[0]) return new Partition(value, quads, null);
+		String[] nquads = new String[quads.size()];
+		for (int i = 0; i < nquads.length; i++) {
+			String[] quad = quads.get(i);
+			nquads[i] = NQuadsWriter.nquad(quad[0], quad[1], quad[2], quad[3], quad[4], quad[5], quad[6]);
+		}
+		Arrays.sort(nquads);
+		return new Partition(value, quads, nquads);
+	}
+
+	private String fallBack(Set<String> excludedTopLevelTerms) {
+		this.partitions.clear();
+		this.partitionsId = null;
+		this.results.remove(excludedTopLevelTerms);
+		return null;
+	}
+
+	/*
+	 * Helper methods
+	 */
+
+	private static boolean containsBlankNodeIdentifier(Object value) {
+		return ! JsonLDTraversal.traverse(value, new JsonLDTraversal.Visitor() {
+
+			@Override
+			public JsonLDTraversal.Result visitScalar(JsonLDTraversal.Path path, Object value) {
+				return value instanceof String string && string.startsWith("_:") ? JsonLDTraversal.Result.TERMINATE : JsonLDTraversal.Result.CONTINUE;
+			}
+		});
+	}
+
+	private static boolean sameIdentities(List<Partition> list1, List<Partition> list2) {
+		if (list1.size() != list2.size()) return false;
+		for (int i = 0; i < list1.size(); i++) if (list1.get(i) != list2.get(i)) return false;
+		return true;
+	}
+}
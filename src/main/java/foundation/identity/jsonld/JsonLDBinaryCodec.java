@@ -0,0 +1,313 @@
+package foundation.identity.jsonld;
+
+import com.fasterxml.jackson.core.StreamReadConstraints;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+public class JsonLDBinaryCodec {
+
+	private static final byte[] MAGIC = new byte[] { 'J', 'L', 'D', 'B' };
+	private static final int VERSION = 1;
+
+	private static final int TAG_NULL = 0x00;
+	private static final int TAG_FALSE = 0x01;
+	private static final int TAG_TRUE = 0x02;
+	private static final int TAG_INT = 0x03;
+	private static final int TAG_LONG = 0x04;
+	private static final int TAG_DOUBLE = 0x05;
+	private static final int TAG_FLOAT = 0x06;
+	private static final int TAG_BIG_INTEGER = 0x07;
+	private static final int TAG_BIG_DECIMAL = 0x08;
+	private static final int TAG_STRING = 0x09;
+	private static final int TAG_STRING_DICTIONARY = 0x0a;
+	private static final int TAG_STRING_REFERENCE = 0x0b;
+	private static final int TAG_MAP = 0x0c;
+	private static final int TAG_LIST = 0x0d;
+
+	private static final int MAX_STRING_REFERENCES = 65536;
+
+	// the same nesting depth and string length that Jackson enforces by default when reading JSON text
+	public static final JsonLDParseLimits DEFAULT_PARSE_LIMITS = new JsonLDParseLimits(JsonLDParseLimits.UNLIMITED, StreamReadConstraints.DEFAULT_MAX_DEPTH, JsonLDParseLimits.UNLIMITED, JsonLDParseLimits.UNLIMITED, StreamReadConstraints.DEFAULT_MAX_STRING_LEN);
+
+	// append only; the index of each entry is part of the binary format
+	private static final String[] DICTIONARY = new String[] {
+			"@context", "@id", "@type", "@value", "@language", "@graph", "@vocab", "@base", "@container", "@protected", "@version", "@import",
+			"id", "type",
+			"https://www.w3.org/2018/credentials/v1",
+			"https://www.w3.org/ns/credentials/v2",
+			"https://w3id.org/security/v1",
+			"https://w3id.org/security/v2",
+			"https://w3id.org/security/v3-unstable",
+			"https://w3id.org/security/suites/ed25519-2018/v1",
+			"https://w3id.org/security/suites/ed25519-2020/v1",
+			"https://w3id.org/security/suites/jws-2020/v1",
+			"https://w3id.org/security/suites/secp256k1-2019/v1",
+			"https://w3id.org/security/data-integrity/v1",
+			"https://w3id.org/security/data-integrity/v2",
+			"https://w3id.org/security/multikey/v1",
+			"https://www.w3.org/ns/did/v1",
+			"https://w3id.org/vc/status-list/2021/v1",
+			"VerifiableCredential", "VerifiablePresentation",
+			"credentialSubject", "issuer", "issuanceDate", "expirationDate", "validFrom", "validUntil",
+			"credentialStatus", "credentialSchema", "evidence", "termsOfUse", "refreshService",
+			"holder", "verifiableCredential", "name", "description",
+			"proof", "created", "proofPurpose", "verificationMethod", "jws", "proofValue", "challenge", "domain", "nonce", "cryptosuite",
+			"assertionMethod", "authentication", "capabilityInvocation", "capabilityDelegation", "keyAgreement",
+			"Ed25519Signature2018", "Ed25519Signature2020", "JsonWebSignature2020", "EcdsaSecp256k1Signature2019", "DataIntegrityProof",
+			"Ed25519VerificationKey2018", "Ed25519VerificationKey2020", "JsonWebKey2020", "EcdsaSecp256k1VerificationKey2019", "Multikey",
+			"controller", "service", "serviceEndpoint", "publicKeyBase58", "publicKeyMultibase", "publicKeyJwk",
+			"kty", "crv", "x", "y", "kid",
+			"statusPurpose", "statusListIndex", "statusListCredential", "StatusList2021Entry", "revocation", "suspension"
+	};
+
+	private static final Map<String, Integer> DICTIONARY_INDEX;
+
+	static {
+
+		DICTIONARY_INDEX = new HashMap<>();
+		for (int i = 0; i < DICTIONARY.length; i++) DICTIONARY_INDEX.put(DICTIONARY[i], i);
+	}
+
+	private static final ObjectMapper objectMapper = new ObjectMapper();
+
+	/*
+	 * Writing
+	 */
+
+	public static void write(Map<String, Object> jsonObject, OutputStream outputStream) throws IOException {
+
+		DataOutputStream dataOutputStream = new DataOutputStream(new BufferedOutputStream(outputStream));
+		dataOutputStream.write(MAGIC);
+		dataOutputStream.write(VERSION);
+		writeValue(dataOutputStream, jsonObject, new HashMap<>());
+		dataOutputStream.flush();
+	}
+
+	public static byte[] write(Map<String, Object> jsonObject) throws IOException {
+
+		ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+		write(jsonObject, byteArrayOutputStream);
+		return byteArrayOutputStream.toByteArray();
+	}
+
+	private static void writeValue(DataOutputStream out, Object value, Map<String, Integer> stringReferences) throws IOException {
+
+		if (value == null) {
+			out.write(TAG_NULL);
+		} else if (value instanceof Boolean bool) {
+			out.write(bool ? TAG_TRUE : TAG_FALSE);
+		} else if (value instanceof String string) {
+			writeString(out, string, stringReferences);
+		} else if (value instanceof Map<?, ?> map) {
+			out.write(TAG_MAP);
+			writeVarInt(out, map.size());
+			for (Map.Entry<?, ?> entry : map.entrySet()) {
+				writeString(out, (String) entry.getKey(), stringReferences);
+				writeValue(out, entry.getValue(), stringReferences);
+			}
+		} else if (value instanceof List<?> list) {
+			out.write(TAG_LIST);
+			writeVarInt(out, list.size());
+			for (Object entry : list) writeValue(out, entry, stringReferences);
+		} else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+			out.write(TAG_INT);
+			writeVarLong(out, zigZag(((Number) value).intValue()));
+		} else if (value instanceof Long longValue) {
+			out.write(TAG_LONG);
+			writeVarLong(out, zigZag(longValue));
+		} else if (value instanceof Double doubleValue) {
+			out.write(TAG_DOUBLE);
+			out.writeDouble(doubleValue);
+		} else if (value instanceof Float floatValue) {
+			out.write(TAG_FLOAT);
+			out.writeFloat(floatValue);
+		} else if (value instanceof BigInteger bigInteger) {
+			out.write(TAG_BIG_INTEGER);
+			writeBytes(out, bigInteger.toByteArray());
+		} else if (value instanceof BigDecimal bigDecimal) {
+			out.write(TAG_BIG_DECIMAL);
+			writeVarLong(out, zigZag(bigDecimal.scale()));
+			writeBytes(out, bigDecimal.unscaledValue().toByteArray());
+		} else if (value instanceof JsonLDObject jsonLdObject) {
+			writeValue(out, jsonLdObject.getJsonObject(), stringReferences);
+		} else {
+			writeValue(out, objectMapper.convertValue(value, Object.class), stringReferences);
+		}
+	}
+
+	private static void writeString(DataOutputStream out, String string, Map<String, Integer> stringReferences) throws IOException {
+
+		Integer dictionaryIndex = DICTIONARY_INDEX.get(string);
+		if (dictionaryIndex != null) {
+			out.write(TAG_STRING_DICTIONARY);
+			writeVarInt(out, dictionaryIndex);
+			return;
+		}
+
+		Integer stringReference = stringReferences.get(string);
+		if (stringReference != null) {
+			out.write(TAG_STRING_REFERENCE);
+			writeVarInt(out, stringReference);
+			return;
+		}
+
+		if (stringReferences.size() < MAX_STRING_REFERENCES) stringReferences.put(string, stringReferences.size());
+		out.write(TAG_STRING);
+		writeBytes(out, string.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+		writeVarInt(out, bytes.length);
+		out.write(bytes);
+	}
+
+	private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+		writeVarLong(out, value & 0xffffffffL);
+	}
+
+	private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+		while ((value & ~0x7fL) != 0) {
+			out.write((int) ((value & 0x7f) | 0x80));
+			value >>>= 7;
+		}
+		out.write((int) value);
+	}
+
+	private static long zigZag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	/*
+	 * Reading
+	 */
+
+	public static Map<String, Object> read(InputStream inputStream) throws IOException {
+		return read(inputStream, DEFAULT_PARSE_LIMITS);
+	}
+
+	// the length limit of the parse limits counts bytes here; a stream that is not already buffered is read ahead
+	public static Map<String, Object> read(InputStream inputStream, JsonLDParseLimits parseLimits) throws IOException {
+
+		if (parseLimits == null) parseLimits = DEFAULT_PARSE_LIMITS;
+		if (! (inputStream instanceof BufferedInputStream) && ! (inputStream instanceof ByteArrayInputStream)) inputStream = new BufferedInputStream(inputStream);
+		DataInputStream dataInputStream = new DataInputStream(parseLimits.limitInputStream(inputStream));
+		byte[] magic = new byte[MAGIC.length];
+		dataInputStream.readFully(magic);
+		if (! Arrays.equals(MAGIC, magic)) throw new IOException("Not a binary JSON-LD document.");
+		int version = dataInputStream.read();
+		if (version != VERSION) throw new IOException("Unsupported binary JSON-LD version: " + version);
+
+		if (dataInputStream.readUnsignedByte() != TAG_MAP) throw new IOException("Binary JSON-LD document is not a JSON object.");
+		return readMap(dataInputStream, new ArrayList<>(), parseLimits, 0);
+	}
+
+	public static Map<String, Object> read(byte[] bytes) throws IOException {
+		return read(new ByteArrayInputStream(bytes));
+	}
+
+	private static Object readValue(DataInputStream in, List<String> stringReferences, JsonLDParseLimits parseLimits, int depth) throws IOException {
+
+		int tag = in.readUnsignedByte();
+		switch (tag) {
+			case TAG_NULL:
+				return null;
+			case TAG_FALSE:
+				return Boolean.FALSE;
+			case TAG_TRUE:
+				return Boolean.TRUE;
+			case TAG_INT:
+				return (int) unZigZag(readVarLong(in));
+			case TAG_LONG:
+				return unZigZag(readVarLong(in));
+			case TAG_DOUBLE:
+				return in.readDouble();
+			case TAG_FLOAT:
+				return in.readFloat();
+			case TAG_BIG_INTEGER:
+				return new BigInteger(readBytes(in, parseLimits));
+			case TAG_BIG_DECIMAL:
+				int scale = (int) unZigZag(readVarLong(in));
+				return new BigDecimal(new BigInteger(readBytes(in, parseLimits)), scale);
+			case TAG_STRING:
+			case TAG_STRING_DICTIONARY:
+			case TAG_STRING_REFERENCE:
+				return readString(in, tag, stringReferences, parseLimits);
+			case TAG_MAP:
+				return readMap(in, stringReferences, parseLimits, depth);
+			case TAG_LIST:
+				parseLimits.checkDepth(depth + 1);
+				int listSize = readVarInt(in);
+				parseLimits.checkArrayLength(listSize);
+				List<Object> list = new ArrayList<>(Math.min(listSize, 1024));
+				for (int i = 0; i < listSize; i++) list.add(readValue(in, stringReferences, parseLimits, depth + 1));
+				return list;
+			default:
+				throw new IOException("Invalid binary JSON-LD tag: " + tag);
+		}
+	}
+
+	private static Map<String, Object> readMap(DataInputStream in, List<String> stringReferences, JsonLDParseLimits parseLimits, int depth) throws IOException {
+
+		parseLimits.checkDepth(depth + 1);
+		int mapSize = readVarInt(in);
+		parseLimits.checkMapEntries(mapSize);
+		Map<String, Object> map = new LinkedHashMap<>(Math.min(mapSize, 1024) * 4 / 3 + 1);
+		for (int i = 0; i < mapSize; i++) {
+			String key = readString(in, in.readUnsignedByte(), stringReferences, parseLimits);
+			map.put(key, readValue(in, stringReferences, parseLimits, depth + 1));
+		}
+		return map;
+	}
+
+	private static String readString(DataInputStream in, int tag, List<String> stringReferences, JsonLDParseLimits parseLimits) throws IOException {
+
+		if (tag == TAG_STRING_DICTIONARY) {
+			int index = readVarInt(in);
+			if (index >= DICTIONARY.length) throw new IOException("Invalid binary JSON-LD dictionary index: " + index);
+			return DICTIONARY[index];
+		} else if (tag == TAG_STRING_REFERENCE) {
+			int index = readVarInt(in);
+			if (index >= stringReferences.size()) throw new IOException("Invalid binary JSON-LD string reference: " + index);
+			return stringReferences.get(index);
+		} else if (tag == TAG_STRING) {
+			String string = new String(readBytes(in, parseLimits), StandardCharsets.UTF_8);
+			if (stringReferences.size() < MAX_STRING_REFERENCES) stringReferences.add(string);
+			return string;
+		} else {
+			throw new IOException("Invalid binary JSON-LD string tag: " + tag);
+		}
+	}
+
+	private static byte[] readBytes(DataInputStream in, JsonLDParseLimits parseLimits) throws IOException {
+		int length = readVarInt(in);
+		parseLimits.checkStringLength(length);
+		byte[] bytes = in.readNBytes(length);
+		if (bytes.length != length) throw new EOFException();
+		return bytes;
+	}
+
+	private static int readVarInt(DataInputStream in) throws IOException {
+		long value = readVarLong(in);
+		if (value < 0 || value > Integer.MAX_VALUE) throw new IOException("Invalid binary JSON-LD length: " + value);
+		return (int) value;
+	}
+
+	private static long readVarLong(DataInputStream in) throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (long) (b & 0x7f) << shift;
+			if ((b & 0x80) == 0) return value;
+		}
+		throw new IOException("Invalid binary JSON-LD varint.");
+	}
+
+	private static long unZigZag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+}
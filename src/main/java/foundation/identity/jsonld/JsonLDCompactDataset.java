@@ -0,0 +1,266 @@
+package foundation.identity.jsonld;
+
+import com.apicatalog.rdf.api.RdfConsumerException;
+import com.apicatalog.rdf.api.RdfQuadConsumer;
+
+import java.util.*;
+import java.util.function.IntConsumer;
+
+public class JsonLDCompactDataset {
+
+	public static final int ANY = -1;
+	public static final int UNKNOWN = -2;
+	public static final int DEFAULT_GRAPH = -3;
+
+	private static final int STRIDE = 4;
+
+	private final String[] values;
+	private final String[] datatypes;
+	private final String[] languages;
+	private final String[] directions;
+	private final int[] quads;
+	private final int size;
+
+	// open addressing table from term hashes to term ids, so that the builder's boxed dictionary is not kept after building
+	private final int[] termTable;
+
+	private final Index subjectIndex;
+	private final Index predicateIndex;
+	private final Index objectIndex;
+	private final Index graphIndex;
+
+	private record Literal(String value, String datatype, String language, String direction) {
+	}
+
+	private JsonLDCompactDataset(Builder builder) {
+		int terms = builder.values.size();
+		this.values = builder.values.toArray(new String[terms]);
+		this.datatypes = builder.datatypes.toArray(new String[terms]);
+		this.languages = builder.languages.toArray(new String[terms]);
+		this.directions = builder.directions.toArray(new String[terms]);
+		this.quads = Arrays.copyOf(builder.quads, builder.size * STRIDE);
+		this.size = builder.size;
+		this.termTable = new int[Integer.highestOneBit(Math.max(terms, 1) * 2) * 2];
+		Arrays.fill(this.termTable, -1);
+		for (int id = 0; id < terms; id++) this.termTable[this.findSlot(this.values[id], this.datatypes[id], this.languages[id], this.directions[id])] = id;
+		this.subjectIndex = new Index(this.quads, this.size, 0, terms);
+		this.predicateIndex = new Index(this.quads, this.size, 1, terms);
+		this.objectIndex = new Index(this.quads, this.size, 2, terms);
+		this.graphIndex = new Index(this.quads, this.size, 3, terms);
+	}
+
+	/*
+	 * Building the dataset
+	 */
+
+	static final class Builder implements RdfQuadConsumer {
+
+		private final Map<Object, Integer> dictionary = new HashMap<>();
+		private final List<String> values = new ArrayList<>();
+		private final List<String> datatypes = new ArrayList<>();
+		private final List<String> languages = new ArrayList<>();
+		private final List<String> directions = new ArrayList<>();
+		private int[] quads = new int[64 * STRIDE];
+		private int size = 0;
+
+		@Override
+		public RdfQuadConsumer quad(String subject, String predicate, String object, String datatype, String language, String direction, String graph) throws RdfConsumerException {
+			if (this.size * STRIDE == this.quads.length) this.quads = Arrays.copyOf(this.quads, this.quads.length * 2);
+			int offset = this.size * STRIDE;
+			this.quads[offset] = this.resource(subject);
+			this.quads[offset + 1] = this.resource(predicate);
+			this.quads[offset + 2] = RdfQuadConsumer.isLiteral(datatype, language, direction) ? this.literal(object, datatype, language, direction) : this.resource(object);
+			this.quads[offset + 3] = graph == null ? DEFAULT_GRAPH : this.resource(graph);
+			this.size++;
+			return this;
+		}
+
+		private int resource(String value) {
+			Integer id = this.dictionary.get(value);
+			return id != null ? id : this.add(value, value, null, null, null);
+		}
+
+		private int literal(String value, String datatype, String language, String direction) {
+			Literal literal = new Literal(value, datatype, language, direction);
+			Integer id = this.dictionary.get(literal);
+			return id != null ? id : this.add(literal, value, datatype, language, direction);
+		}
+
+		private int add(Object key, String value, String datatype, String language, String direction) {
+			int id = this.values.size();
+			this.dictionary.put(key, id);
+			this.values.add(value);
+			this.datatypes.add(datatype);
+			this.languages.add(language);
+			this.directions.add(direction);
+			return id;
+		}
+
+		JsonLDCompactDataset build() {
+			return new JsonLDCompactDataset(this);
+		}
+	}
+
+	/*
+	 * Index from term ids to quad positions, stored as offsets into a single int[]
+	 */
+
+	private static final class Index {
+
+		private final int[] offsets;
+		private final int[] positions;
+
+		// the default graph is kept in an extra slot after the last term
+		private Index(int[] quads, int size, int component, int terms) {
+			this.offsets = new int[terms + 2];
+			for (int i = 0; i < size; i++) this.offsets[slot(quads[i * STRIDE + component], terms) + 1]++;
+			for (int i = 0; i <= terms; i++) this.offsets[i + 1] += this.offsets[i];
+			this.positions = new int[size];
+			int[] next = Arrays.copyOf(this.offsets, terms + 1);
+			for (int i = 0; i < size; i++) this.positions[next[slot(quads[i * STRIDE + component], terms)]++] = i;
+		}
+
+		private static int slot(int term, int terms) {
+			return term == DEFAULT_GRAPH ? terms : term;
+		}
+
+		private int start(int term) {
+			return this.offsets[slot(term, this.offsets.length - 2)];
+		}
+
+		private int end(int term) {
+			return this.offsets[slot(term, this.offsets.length - 2) + 1];
+		}
+
+		private int count(int term) {
+			return this.end(term) - this.start(term);
+		}
+	}
+
+	/*
+	 * Looking up terms
+	 */
+
+	public int getTermId(String iriOrBlankNode) {
+		int id = this.termTable[this.findSlot(iriOrBlankNode, null, null, null)];
+		return id == -1 ? UNKNOWN : id;
+	}
+
+	public int getLiteralId(String value, String datatype, String language, String direction) {
+		if (! RdfQuadConsumer.isLiteral(datatype, language, direction)) return UNKNOWN;
+		int id = this.termTable[this.findSlot(value, datatype, language, direction)];
+		return id == -1 ? UNKNOWN : id;
+	}
+
+	private int findSlot(String value, String datatype, String language, String direction) {
+		int mask = this.termTable.length - 1;
+		int hash = value.hashCode();
+		int slot = (hash ^ (hash >>> 16)) & mask;
+		while (true) {
+			int id = this.termTable[slot];
+			if (id == -1) return slot;
+			if (this.values[id].equals(value) && Objects.equals(this.datatypes[id], datatype) && Objects.equals(this.languages[id], language) && Objects.equals(this.directions[id], direction)) return slot;
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	public String getValue(int termId) {
+		return this.values[termId];
+	}
+
+	public String getDatatype(int termId) {
+		return this.datatypes[termId];
+	}
+
+	public String getLanguage(int termId) {
+		return this.languages[termId];
+	}
+
+	public String getDirection(int termId) {
+		return this.directions[termId];
+	}
+
+	public boolean isLiteral(int termId) {
+		return RdfQuadConsumer.isLiteral(this.datatypes[termId], this.languages[termId], this.directions[termId]);
+	}
+
+	public int getTermCount() {
+		return this.values.length;
+	}
+
+	/*
+	 * Accessing quads
+	 */
+
+	public int size() {
+		return this.size;
+	}
+
+	public int getSubject(int quad) {
+		return this.quads[quad * STRIDE];
+	}
+
+	public int getPredicate(int quad) {
+		return this.quads[quad * STRIDE + 1];
+	}
+
+	public int getObject(int quad) {
+		return this.quads[quad * STRIDE + 2];
+	}
+
+	public int getGraph(int quad) {
+		return this.quads[quad * STRIDE + 3];
+	}
+
+	public void match(int subject, int predicate, int object, IntConsumer quadConsumer) {
+		this.match(subject, predicate, object, ANY, quadConsumer);
+	}
+
+	public void match(int subject, int predicate, int object, int graph, IntConsumer quadConsumer) {
+
+		if (subject == UNKNOWN || predicate == UNKNOWN || object == UNKNOWN || graph == UNKNOWN) return;
+
+		Index index = null;
+		int term = ANY;
+		if (subject != ANY) { index = this.subjectIndex; term = subject; }
+		if (predicate != ANY && (index == null || this.predicateIndex.count(predicate) < index.count(term))) { index = this.predicateIndex; term = predicate; }
+		if (object != ANY && (index == null || this.objectIndex.count(object) < index.count(term))) { index = this.objectIndex; term = object; }
+		if (graph != ANY && (index == null || this.graphIndex.count(graph) < index.count(term))) { index = this.graphIndex; term = graph; }
+
+		if (index == null) {
+			for (int i = 0; i < this.size; i++) quadConsumer.accept(i);
+			return;
+		}
+
+		for (int i = index.start(term); i < index.end(term); i++) {
+			int quad = index.positions[i];
+			if (subject != ANY && this.getSubject(quad) != subject) continue;
+			if (predicate != ANY && this.getPredicate(quad) != predicate) continue;
+			if (object != ANY && this.getObject(quad) != object) continue;
+			if (graph != ANY && this.getGraph(quad) != graph) continue;
+			quadConsumer.accept(quad);
+		}
+	}
+
+	public int[] match(int subject, int predicate, int object) {
+		return this.match(subject, predicate, object, ANY);
+	}
+
+	public int[] match(int subject, int predicate, int object, int graph) {
+		int[][] result = new int[][] { new int[8] };
+		int[] count = new int[1];
+		this.match(subject, predicate, object, graph, quad -> {
+			if (count[0] == result[0].length) result[0] = Arrays.copyOf(result[0], count[0] * 2);
+			result[0][count[0]++] = quad;
+		});
+		return Arrays.copyOf(result[0], count[0]);
+	}
+
+	public void provide(RdfQuadConsumer rdfQuadConsumer) throws RdfConsumerException {
+		for (int i = 0; i < this.size; i++) {
+			int object = this.getObject(i);
+			int graph = this.getGraph(i);
+			rdfQuadConsumer.quad(this.values[this.getSubject(i)], this.values[this.getPredicate(i)], this.values[object], this.datatypes[object], this.languages[object], this.directions[object], graph == DEFAULT_GRAPH ? null : this.values[graph]);
+		}
+	}
+}
@@ -4,8 +4,8 @@ import com.apicatalog.jsonld.uri.UriResolver;
 
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
 
 public class JsonLDDereferencer {
@@ -91,51 +91,41 @@ public class JsonLDDereferencer {
     public static JsonLDObject findByIdInJsonLdObject(JsonLDObject jsonLdObject, URI uri, URI baseUri, boolean allowRelativeWithoutBaseUri) {
 
         if (baseUri == null && allowRelativeWithoutBaseUri) baseUri = URI.create("urn:uuid:dummy-base-uri");
+        final URI finalBaseUri = baseUri;
 
-        if (jsonLdObject.getId() != null) {
+        if (matchesId(jsonLdObject.getJsonObject(), uri, finalBaseUri)) return jsonLdObject;
 
-            URI findId = uri;
-            if (! findId.isAbsolute() && baseUri == null) throw new IllegalArgumentException("No base URI for relative uri " + findId);
-            findId = URI.create(UriResolver.resolve(baseUri, findId.toString()));
+        AtomicReference<Map<String, Object>> found = new AtomicReference<>();
+        JsonLDTraversal.traverse(jsonLdObject, new JsonLDTraversal.Visitor() {
 
-            URI idUri = jsonLdObject.getId();
-            if (! idUri.isAbsolute() && baseUri == null) throw new IllegalArgumentException("No base URI for relative 'id' uri " + uri);
-            idUri = URI.create(UriResolver.resolve(baseUri, idUri.toString()));
-
-            if (findId.equals(idUri)) return jsonLdObject;
-        }
-
-        for (Object value : jsonLdObject.getJsonObject().values()) {
-            if (value instanceof Map) {
-                JsonLDObject foundJsonLDObject = findByIdInJsonLdObject(JsonLDObject.fromMap((Map<String, Object>) value), uri, baseUri, allowRelativeWithoutBaseUri);
-                if (foundJsonLDObject != null) return foundJsonLDObject;
+            @Override
+            public JsonLDTraversal.Result visitMap(JsonLDTraversal.Path path, Map<String, ?> map) {
+                if (path.getDepth() == 0 || ! matchesId((Map<String, Object>) map, uri, finalBaseUri)) return JsonLDTraversal.Result.CONTINUE;
+                found.set((Map<String, Object>) map);
+                return JsonLDTraversal.Result.TERMINATE;
             }
-            else if (value instanceof List) {
-                JsonLDObject foundJsonLDObject = findByIdInList((List<Object>) value, uri, baseUri, allowRelativeWithoutBaseUri);
-                if (foundJsonLDObject != null) return foundJsonLDObject;
-            }
-        }
+        });
 
-        return null;
+        return found.get() == null ? null : JsonLDObject.fromMap(found.get());
     }
 
     public static JsonLDObject findByIdInJsonLdObject(JsonLDObject jsonLdObject, URI uri, URI baseUri) {
         return findByIdInJsonLdObject(jsonLdObject, uri, baseUri, true);
     }
 
-    private static JsonLDObject findByIdInList(List<Object> list, URI uri, URI baseUri, boolean allowRelativeWithoutBaseUri) {
+    private static boolean matchesId(Map<String, Object> jsonObject, URI uri, URI baseUri) {
 
-        for (Object value : list) {
-            if (value instanceof Map) {
-                JsonLDObject foundJsonLDObject = findByIdInJsonLdObject(JsonLDObject.fromMap((Map<String, Object>) value), uri, baseUri, allowRelativeWithoutBaseUri);
-                if (foundJsonLDObject != null) return foundJsonLDObject;
-            }
-            else if (value instanceof List) {
-                JsonLDObject foundJsonLDObject = findByIdInList((List<Object>) value, uri, baseUri, allowRelativeWithoutBaseUri);
-                if (foundJsonLDObject != null) return foundJsonLDObject;
-            }
-        }
+        URI idUri = JsonLDUtils.stringToUri(JsonLDUtils.jsonLdGetString(jsonObject, JsonLDKeywords.JSONLD_TERM_AT_ID));
+        if (idUri == null) idUri = JsonLDUtils.stringToUri(JsonLDUtils.jsonLdGetString(jsonObject, JsonLDKeywords.JSONLD_TERM_ID));
+        if (idUri == null) return false;
+
+        URI findId = uri;
+        if (! findId.isAbsolute() && baseUri == null) throw new IllegalArgumentException("No base URI for relative uri " + findId);
+        findId = URI.create(UriResolver.resolve(baseUri, findId.toString()));
+
+        if (! idUri.isAbsolute() && baseUri == null) throw new IllegalArgumentException("No base URI for relative 'id' uri " + uri);
+        idUri = URI.create(UriResolver.resolve(baseUri, idUri.toString()));
 
-        return null;
+        return findId.equals(idUri);
     }
 }
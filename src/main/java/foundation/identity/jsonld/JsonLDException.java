@@ -12,7 +12,12 @@ public class JsonLDException extends Exception {
         this.ex = ex;
     }
 
+    protected JsonLDException(String message) {
+        super(message);
+        this.ex = null;
+    }
+
     public JsonLdErrorCode getCode() {
-        return this.ex.getCode();
+        return this.ex == null ? null : this.ex.getCode();
     }
 }
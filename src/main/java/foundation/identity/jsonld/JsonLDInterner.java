@@ -0,0 +1,80 @@
+package foundation.identity.jsonld;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+public class JsonLDInterner {
+
+	public static final int DEFAULT_MAX_SIZE = 16384;
+	public static final int DEFAULT_MAX_VALUE_LENGTH = 256;
+
+	public static final JsonLDInterner DEFAULT_INTERNER = new JsonLDInterner();
+
+	private final Cache<String, String> table;
+	private final int maxSize;
+	private final int maxValueLength;
+	private final boolean compactMaps;
+
+	public JsonLDInterner(int maxSize, int maxValueLength, boolean compactMaps) {
+		this(maxSize, maxValueLength, compactMaps, ForkJoinPool.commonPool());
+	}
+
+	public JsonLDInterner() {
+		this(DEFAULT_MAX_SIZE, DEFAULT_MAX_VALUE_LENGTH, false);
+	}
+
+	// the size-based eviction keeps frequently seen strings (keys, types, context URIs) and drops one-off ids, dates and proof values
+	JsonLDInterner(int maxSize, int maxValueLength, boolean compactMaps, Executor executor) {
+		this.table = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.executor(executor)
+				.build();
+		this.maxSize = maxSize;
+		this.maxValueLength = maxValueLength;
+		this.compactMaps = compactMaps;
+	}
+
+	public String intern(String string) {
+		if (string == null) return null;
+		return this.table.get(string, Function.identity());
+	}
+
+	public String internValue(String string) {
+		if (string == null || string.length() > this.maxValueLength) return string;
+		return this.intern(string);
+	}
+
+	public List<Object> compact(List<Object> list) {
+		if (this.compactMaps && list instanceof ArrayList<Object> arrayList) arrayList.trimToSize();
+		return list;
+	}
+
+	public void clear() {
+		this.table.invalidateAll();
+	}
+
+	/*
+	 * Getters and setters
+	 */
+
+	public long getSize() {
+		return this.table.estimatedSize();
+	}
+
+	public int getMaxSize() {
+		return this.maxSize;
+	}
+
+	public int getMaxValueLength() {
+		return this.maxValueLength;
+	}
+
+	public boolean isCompactMaps() {
+		return this.compactMaps;
+	}
+}
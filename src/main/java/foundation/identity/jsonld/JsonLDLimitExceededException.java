@@ -0,0 +1,16 @@
+package foundation.identity.jsonld;
+
+import com.apicatalog.jsonld.JsonLdError;
+
+public class JsonLDLimitExceededException extends JsonLDException {
+
+    private static final long serialVersionUID = 1L;
+
+    public JsonLDLimitExceededException(JsonLdError ex) {
+        super(ex);
+    }
+
+    public JsonLDLimitExceededException(String message) {
+        super(message);
+    }
+}
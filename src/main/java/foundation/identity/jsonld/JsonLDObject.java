@@ -2,6 +2,7 @@ package foundation.identity.jsonld;
 
 import com.apicatalog.jsonld.JsonLd;
 import com.apicatalog.jsonld.JsonLdError;
+import com.apicatalog.jsonld.JsonLdErrorCode;
 import com.apicatalog.jsonld.JsonLdOptions;
 import com.apicatalog.jsonld.api.ToRdfApi;
 import com.apicatalog.jsonld.document.JsonDocument;
@@ -9,29 +10,48 @@ import com.apicatalog.jsonld.http.media.MediaType;
 import com.apicatalog.jsonld.lang.Keywords;
 import com.apicatalog.jsonld.loader.DocumentLoader;
 import com.apicatalog.rdf.RdfDataset;
+import com.apicatalog.rdf.RdfDatasetSupplier;
 import com.apicatalog.rdf.api.RdfConsumerException;
 import com.apicatalog.rdf.api.RdfQuadConsumer;
-import com.apicatalog.rdf.canon.RdfCanon;
+import com.apicatalog.rdf.canon.RdfCanonTicker;
 import com.apicatalog.rdf.nquads.NQuadsWriter;
 import com.fasterxml.jackson.annotation.JsonAnySetter;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import jakarta.json.Json;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonArrayBuilder;
+import jakarta.json.JsonNumber;
 import jakarta.json.JsonObject;
+import jakarta.json.JsonObjectBuilder;
+import jakarta.json.JsonString;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.math.BigInteger;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public class JsonLDObject {
@@ -44,9 +64,28 @@ public class JsonLDObject {
 	private static final ObjectMapper objectMapper = new ObjectMapper();
 	private static final ObjectWriter objectWriterDefault = objectMapper.writer();
 	private static final ObjectWriter objectWriterPretty = objectMapper.writerWithDefaultPrettyPrinter();
+	private static final ObjectWriter objectWriterDefaultStream = objectWriterDefault.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+	private static final ObjectWriter objectWriterPrettyStream = objectWriterPretty.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
 
 	private final Map<String, Object> jsonObject;
 	private DocumentLoader documentLoader;
+	private CanonicalizationLimits canonicalizationLimits = null;
+	private boolean digestEquality = false;
+	private boolean expansionCaching = false;
+	private IncrementalNormalization incrementalNormalization = null;
+
+	private long modificationCount = 0;
+	private volatile Cached<byte[]> digest = null;
+	private volatile Cached<Integer> hashCode = null;
+	private Expanded expanded = null;
+
+	// immutable, so that a cached value and the modification count it belongs to are always published together
+	private record Cached<T>(T value, long modificationCount) {
+	}
+
+	// keyed on the content digest, because the map and its nested objects can be changed without going through markModified()
+	private record Expanded(JsonArray value, byte[] digest) {
+	}
 
 	@JsonCreator
 	public JsonLDObject() {
@@ -197,10 +236,38 @@ public class JsonLDObject {
 		return new JsonLDObject(readJson(json));
 	}
 
+	public static JsonLDObject fromJsonLazy(byte[] json) {
+		return new JsonLDObject(new LazyJsonLDMap(json));
+	}
+
+	public static JsonLDObject fromJson(Reader reader, JsonLDInterner interner) {
+		return new JsonLDObject(readJson(reader, interner));
+	}
+
+	public static JsonLDObject fromJson(String json, JsonLDInterner interner) {
+		return new JsonLDObject(readJson(json, interner));
+	}
+
+	public static JsonLDObject fromJson(Reader reader, JsonLDParseLimits parseLimits) {
+		return new JsonLDObject(readJson(reader, parseLimits));
+	}
+
+	public static JsonLDObject fromJson(String json, JsonLDParseLimits parseLimits) {
+		return new JsonLDObject(readJson(json, parseLimits));
+	}
+
 	public static JsonLDObject fromMap(Map<String, Object> jsonObject) {
 		return new JsonLDObject(jsonObject);
 	}
 
+	public static JsonLDObject fromBinary(InputStream inputStream) throws IOException {
+		return new JsonLDObject(JsonLDBinaryCodec.read(inputStream));
+	}
+
+	public static JsonLDObject fromBinary(InputStream inputStream, JsonLDParseLimits parseLimits) throws IOException {
+		return new JsonLDObject(JsonLDBinaryCodec.read(inputStream, parseLimits));
+	}
+
 	/*
 	 * Adding, getting, and removing the JSON-LD object
 	 */
@@ -227,12 +294,7 @@ public class JsonLDObject {
 		String term = getDefaultJsonLDPredicate(cl);
 		Map<String, Object> jsonObject = JsonLDUtils.jsonLdGetJsonObject(jsonLdObject.getJsonObject(), term);
 		if (jsonObject == null) return null;
-		try {
-			Method method = cl.getMethod("fromMap", Map.class);
-			return (C) method.invoke(null, jsonObject);
-		} catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException ex) {
-			throw new RuntimeException(ex);
-		}
+		return getFromMapFactory(cl).apply(jsonObject);
 	}
 
 	public static <C extends JsonLDObject> List<C> getFromJsonLDObjectAsList(Class<C> cl, JsonLDObject jsonLdObject) {
@@ -243,14 +305,8 @@ public class JsonLDObject {
 			jsonValue = Collections.singletonList(jsonValue);
 		}
 		if (jsonValue instanceof List jsonValueList) {
-			return ((List<Map<String, Object>>) jsonValueList).stream().map(jsonObject -> {
-				try {
-					Method method = cl.getMethod("fromMap", Map.class);
-					return (C) method.invoke(null, jsonObject);
-				} catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException ex) {
-					throw new RuntimeException(ex);
-				}
-			}).toList();
+			Function<Map<String, Object>, C> fromMapFactory = getFromMapFactory(cl);
+			return ((List<Map<String, Object>>) jsonValueList).stream().map(fromMapFactory).toList();
 		} else {
 			throw new IllegalArgumentException("Cannot get JSON-LD object '" + term + "' from " + jsonLdObject);
 		}
@@ -277,8 +333,42 @@ public class JsonLDObject {
 		return this.documentLoader;
 	}
 
-	public void setDocumentLoader(DocumentLoader documentLoader) {
+	public synchronized void setDocumentLoader(DocumentLoader documentLoader) {
 		this.documentLoader = documentLoader;
+		this.expanded = null;
+	}
+
+	public CanonicalizationLimits getCanonicalizationLimits() {
+		return this.canonicalizationLimits;
+	}
+
+	public void setCanonicalizationLimits(CanonicalizationLimits canonicalizationLimits) {
+		this.canonicalizationLimits = canonicalizationLimits;
+	}
+
+	public boolean isDigestEquality() {
+		return this.digestEquality;
+	}
+
+	public void setDigestEquality(boolean digestEquality) {
+		this.digestEquality = digestEquality;
+	}
+
+	public boolean isIncrementalNormalization() {
+		return this.incrementalNormalization != null;
+	}
+
+	public void setIncrementalNormalization(boolean incrementalNormalization) {
+		this.incrementalNormalization = incrementalNormalization ? new IncrementalNormalization() : null;
+	}
+
+	public boolean isExpansionCaching() {
+		return this.expansionCaching;
+	}
+
+	public synchronized void setExpansionCaching(boolean expansionCaching) {
+		this.expansionCaching = expansionCaching;
+		if (! expansionCaching) this.expanded = null;
 	}
 
 	@JsonValue
@@ -289,6 +379,7 @@ public class JsonLDObject {
 	@JsonAnySetter
 	public void setJsonObjectKeyValue(String key, Object value) {
 
+		this.markModified(key);
 		this.getJsonObject().put(key, value);
 	}
 
@@ -321,13 +412,41 @@ public class JsonLDObject {
 		return result;
 	}
 
+	/*
+	 * Tracking modifications
+	 */
+
+	public void markModified() {
+		this.markModified(null);
+	}
+
+	public void markModified(String term) {
+		this.modificationCount++;
+		if (this.getJsonObject() instanceof LazyJsonLDMap lazyJsonLDMap) lazyJsonLDMap.markModified();
+	}
+
+	public byte[] getDigest() {
+		return this.digest().clone();
+	}
+
+	private byte[] digest() {
+		Cached<byte[]> digest = this.digest;
+		long modificationCount = this.modificationCount;
+		if (digest == null || digest.modificationCount() != modificationCount) {
+			digest = new Cached<>(JsonLDUtils.jsonLdDigest(this.getJsonObject()), modificationCount);
+			this.digest = digest;
+		}
+		return digest.value();
+	}
+
 	/*
 	 * Reading the JSON-LD object
 	 */
 
 	protected static Map<String, Object> readJson(Reader reader) {
-		try {
-			return objectMapper.readValue(reader, Map.class);
+		try (JsonParser jsonParser = objectMapper.createParser(reader)) {
+			if (jsonParser.nextToken() != JsonToken.START_OBJECT) throw new IOException("JSON-LD document is not a JSON object.");
+			return objectMapper.readValue(jsonParser, Map.class);
 		} catch (IOException ex) {
 			throw new RuntimeException("Cannot read JSON: " + ex.getMessage(), ex);
 		}
@@ -337,39 +456,248 @@ public class JsonLDObject {
 		return readJson(new StringReader(json));
 	}
 
+	protected static Map<String, Object> readJson(Reader reader, JsonLDInterner interner) {
+		if (interner == null) return readJson(reader);
+		return readJson(reader, interner, null);
+	}
+
+	protected static Map<String, Object> readJson(String json, JsonLDInterner interner) {
+		return readJson(new StringReader(json), interner);
+	}
+
+	protected static Map<String, Object> readJson(Reader reader, JsonLDParseLimits parseLimits) {
+		if (parseLimits == null) return readJson(reader);
+		return readJson(reader, null, parseLimits);
+	}
+
+	protected static Map<String, Object> readJson(String json, JsonLDParseLimits parseLimits) {
+		return readJson(new StringReader(json), parseLimits);
+	}
+
+	protected static Map<String, Object> readJson(Reader reader, JsonLDInterner interner, JsonLDParseLimits parseLimits) {
+		try (JsonParser jsonParser = parseLimits == null ? objectMapper.createParser(reader) : parseLimits.getJsonFactory().createParser(parseLimits.limitReader(reader))) {
+			if (jsonParser.nextToken() != JsonToken.START_OBJECT) throw new IOException("JSON-LD document is not a JSON object.");
+			return readJsonObject(jsonParser, interner, parseLimits, true);
+		} catch (IOException ex) {
+			throw new RuntimeException("Cannot read JSON: " + ex.getMessage(), ex);
+		}
+	}
+
+	private static Map<String, Object> readJsonObject(JsonParser jsonParser, JsonLDInterner interner, JsonLDParseLimits parseLimits, boolean root) throws IOException {
+		if (jsonParser.nextToken() != JsonToken.FIELD_NAME) return new LinkedHashMap<>();
+		if (parseLimits != null) parseLimits.checkMapEntries(1);
+		String firstKey = interner == null ? jsonParser.currentName() : interner.intern(jsonParser.currentName());
+		jsonParser.nextToken();
+		Object firstValue = readJsonValue(jsonParser, interner, parseLimits);
+		// a nested map with a single entry gets one bucket instead of the default 16, without copying it afterwards
+		boolean singleEntry = jsonParser.nextToken() != JsonToken.FIELD_NAME;
+		Map<String, Object> jsonObject = singleEntry && ! root && interner != null && interner.isCompactMaps() ? new LinkedHashMap<>(1, 1.0f) : new LinkedHashMap<>();
+		jsonObject.put(firstKey, firstValue);
+		while (jsonParser.currentToken() == JsonToken.FIELD_NAME) {
+			if (parseLimits != null) parseLimits.checkMapEntries(jsonObject.size() + 1);
+			String key = interner == null ? jsonParser.currentName() : interner.intern(jsonParser.currentName());
+			jsonParser.nextToken();
+			jsonObject.put(key, readJsonValue(jsonParser, interner, parseLimits));
+			jsonParser.nextToken();
+		}
+		return jsonObject;
+	}
+
+	private static Object readJsonValue(JsonParser jsonParser, JsonLDInterner interner, JsonLDParseLimits parseLimits) throws IOException {
+		switch (jsonParser.currentToken()) {
+			case START_OBJECT -> {
+				return readJsonObject(jsonParser, interner, parseLimits, false);
+			}
+			case START_ARRAY -> {
+				List<Object> jsonArray = new ArrayList<>();
+				while (jsonParser.nextToken() != JsonToken.END_ARRAY) {
+					if (parseLimits != null) parseLimits.checkArrayLength(jsonArray.size() + 1);
+					jsonArray.add(readJsonValue(jsonParser, interner, parseLimits));
+				}
+				return interner == null ? jsonArray : interner.compact(jsonArray);
+			}
+			case VALUE_STRING -> {
+				return interner == null ? jsonParser.getText() : interner.internValue(jsonParser.getText());
+			}
+			case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> {
+				return jsonParser.getNumberValue();
+			}
+			case VALUE_TRUE -> {
+				return Boolean.TRUE;
+			}
+			case VALUE_FALSE -> {
+				return Boolean.FALSE;
+			}
+			case VALUE_NULL -> {
+				return null;
+			}
+			default -> throw new IOException("Unexpected JSON token: " + jsonParser.currentToken());
+		}
+	}
+
+	private static Map<String, Object> readJsonObject(JsonObject jsonObject) {
+		Map<String, Object> map = new LinkedHashMap<>();
+		for (Map.Entry<String, jakarta.json.JsonValue> entry : jsonObject.entrySet()) map.put(entry.getKey(), readJsonValue(entry.getValue()));
+		return map;
+	}
+
+	private static Object readJsonValue(jakarta.json.JsonValue jsonValue) {
+		switch (jsonValue.getValueType()) {
+			case OBJECT -> {
+				return readJsonObject(jsonValue.asJsonObject());
+			}
+			case ARRAY -> {
+				List<Object> jsonArray = new ArrayList<>(jsonValue.asJsonArray().size());
+				for (jakarta.json.JsonValue element : jsonValue.asJsonArray()) jsonArray.add(readJsonValue(element));
+				return jsonArray;
+			}
+			case STRING -> {
+				return ((JsonString) jsonValue).getString();
+			}
+			case NUMBER -> {
+				// same number types as when reading JSON text
+				JsonNumber jsonNumber = (JsonNumber) jsonValue;
+				if (! jsonNumber.isIntegral()) return jsonNumber.doubleValue();
+				BigInteger bigInteger = jsonNumber.bigIntegerValue();
+				if (bigInteger.bitLength() < 32) return bigInteger.intValue();
+				if (bigInteger.bitLength() < 64) return bigInteger.longValue();
+				return bigInteger;
+			}
+			case TRUE -> {
+				return Boolean.TRUE;
+			}
+			case FALSE -> {
+				return Boolean.FALSE;
+			}
+			default -> {
+				return null;
+			}
+		}
+	}
+
 	/*
 	 * Writing the JSON-LD object
 	 */
 
 	public ToRdfApi toRdfApi() {
+		return this.toRdfApi(Collections.emptySet());
+	}
+
+	public ToRdfApi toRdfApi(Set<String> excludedTopLevelTerms) {
+		return JsonLd.toRdf(JsonDocument.of(MediaType.JSON_LD, this.toJsonObject(excludedTopLevelTerms))).options(this.jsonLdOptions());
+	}
+
+	// like toRdfApi(), but uses the cached expansion if possible, and reports an expansion error right away instead of running the pipeline again
+	private ToRdfApi rdfApi(Set<String> excludedTopLevelTerms) throws JsonLdError {
+		if (! this.isExpansionCaching() || (excludedTopLevelTerms != null && ! excludedTopLevelTerms.isEmpty())) return this.toRdfApi(excludedTopLevelTerms);
+		return JsonLd.toRdf(JsonDocument.of(MediaType.JSON_LD, this.expanded())).options(this.jsonLdOptions());
+	}
+
+	public JsonArray toExpanded() throws JsonLDException {
+		try {
+			return this.expanded();
+		} catch (JsonLdError ex) {
+			throw toJsonLDException(ex);
+		}
+	}
+
+	public JsonArray toExpanded(JsonObject expandContext) throws JsonLDException {
+		if (expandContext == null) return this.toExpanded();
+		try {
+			return JsonLd.expand(JsonDocument.of(MediaType.JSON_LD, this.toJsonObject())).context(expandContext).options(this.jsonLdOptions()).get();
+		} catch (JsonLdError ex) {
+			throw toJsonLDException(ex);
+		}
+	}
+
+	public JsonLDObject compact(List<URI> contexts) throws JsonLDException {
+		JsonObjectBuilder contextObject = Json.createObjectBuilder();
+		if (contexts != null) {
+			JsonArrayBuilder contextArray = Json.createArrayBuilder();
+			for (URI context : contexts) contextArray.add(context.toString());
+			contextObject.add(Keywords.CONTEXT, contextArray);
+		} else {
+			jakarta.json.JsonValue context = this.toJsonObject().get(Keywords.CONTEXT);
+			if (context == null) throw new IllegalArgumentException("No contexts given, and JSON-LD object has no @context.");
+			contextObject.add(Keywords.CONTEXT, context);
+		}
+		JsonDocument contextDocument = JsonDocument.of(MediaType.JSON_LD, contextObject.build());
+		try {
+			JsonDocument jsonDocument = JsonDocument.of(MediaType.JSON_LD, this.isExpansionCaching() ? this.expanded() : this.toJsonObject());
+			JsonObject compacted = JsonLd.compact(jsonDocument, contextDocument).options(this.jsonLdOptions()).get();
+			JsonLDObject jsonLdObject = JsonLDObject.fromJsonObject(readJsonObject(compacted));
+			jsonLdObject.setDocumentLoader(this.getDocumentLoader());
+			return jsonLdObject;
+		} catch (JsonLdError ex) {
+			throw toJsonLDException(ex);
+		}
+	}
+
+	public JsonLDObject compact() throws JsonLDException {
+		return this.compact(null);
+	}
+
+	private synchronized JsonArray expanded() throws JsonLdError {
+		if (! this.isExpansionCaching()) return JsonLd.expand(JsonDocument.of(MediaType.JSON_LD, this.toJsonObject())).options(this.jsonLdOptions()).get();
+		byte[] digest = JsonLDUtils.jsonLdDigest(this.getJsonObject());
+		if (this.expanded == null || ! Arrays.equals(digest, this.expanded.digest())) {
+			this.expanded = new Expanded(JsonLd.expand(JsonDocument.of(MediaType.JSON_LD, this.toJsonObject())).options(this.jsonLdOptions()).get(), digest);
+		}
+		return this.expanded.value();
+	}
+
+	JsonLdOptions jsonLdOptions() {
 		JsonLdOptions options = this.getDocumentLoader() != null ? new JsonLdOptions(this.getDocumentLoader()) : new JsonLdOptions();
 		options.setOrdered(true);
-		JsonDocument jsonDocument = JsonDocument.of(MediaType.JSON_LD, this.toJsonObject());
-		ToRdfApi toRdfApi = JsonLd.toRdf(jsonDocument);
-		toRdfApi.options(options);
-		return toRdfApi;
+		if (this.getCanonicalizationLimits() != null && this.getCanonicalizationLimits().getTimeout() != null) options.setTimeout(this.getCanonicalizationLimits().getTimeout());
+		return options;
 	}
 
 	public RdfDataset toDataset() throws JsonLDException {
+		return this.toDataset(Collections.emptySet());
+	}
+
+	@SuppressWarnings("deprecation")
+	public RdfDataset toDataset(Set<String> excludedTopLevelTerms) throws JsonLDException {
 		try {
-			return this.toRdfApi().get();
+			if (this.getCanonicalizationLimits() == null) return this.rdfApi(excludedTopLevelTerms).get();
+			RdfDatasetSupplier rdfDatasetSupplier = new RdfDatasetSupplier();
+			this.rdfApi(excludedTopLevelTerms).provide(new CanonicalizationLimiter(this.getCanonicalizationLimits(), rdfDatasetSupplier));
+			return rdfDatasetSupplier.get();
 		} catch (JsonLdError ex) {
-			throw new JsonLDException(ex);
+			throw toJsonLDException(ex);
 		}
 	}
 
+	public JsonLDCompactDataset toCompactDataset() throws JsonLDException {
+		JsonLDCompactDataset.Builder builder = new JsonLDCompactDataset.Builder();
+		try {
+			this.rdfApi(Collections.emptySet()).provide(this.getCanonicalizationLimits() == null ? builder : new CanonicalizationLimiter(this.getCanonicalizationLimits(), builder));
+		} catch (JsonLdError ex) {
+			throw toJsonLDException(ex);
+		}
+		return builder.build();
+	}
+
 	public String toNQuads() throws JsonLDException, IOException {
+		return this.toNQuads(Collections.emptySet());
+	}
+
+	public String toNQuads(Set<String> excludedTopLevelTerms) throws JsonLDException, IOException {
 		StringWriter stringWriter = new StringWriter();
-		NQuadsWriter nQuadsWriter = new NQuadsWriter(stringWriter);
+		RdfQuadConsumer nQuadsWriter = new NQuadsWriter(stringWriter);
+		if (this.getCanonicalizationLimits() != null) nQuadsWriter = new CanonicalizationLimiter(this.getCanonicalizationLimits(), nQuadsWriter);
         try {
-            this.toRdfApi().provide(nQuadsWriter);
+            this.rdfApi(excludedTopLevelTerms).provide(nQuadsWriter);
 		} catch (JsonLdError ex) {
-			throw new JsonLDException(ex);
+			throw toJsonLDException(ex);
 		}
 		return stringWriter.toString();
 	}
 
 	public String toJson(boolean pretty) {
+		byte[] json = pretty ? null : this.serializedJson();
+		if (json != null) return new String(json, StandardCharsets.UTF_8);
 		ObjectWriter objectWriter = pretty ? objectWriterPretty : objectWriterDefault;
 		try {
 			return objectWriter.writeValueAsString(this.getJsonObject());
@@ -382,21 +710,82 @@ public class JsonLDObject {
 		return this.toJson(false);
 	}
 
+	public void writeJson(OutputStream outputStream, boolean pretty) throws IOException {
+		byte[] json = pretty ? null : this.serializedJson();
+		if (json != null) {
+			outputStream.write(json);
+			return;
+		}
+		ObjectWriter objectWriter = pretty ? objectWriterPrettyStream : objectWriterDefaultStream;
+		objectWriter.writeValue(outputStream, this.getJsonObject());
+	}
+
+	public void writeJson(Writer writer, boolean pretty) throws IOException {
+		byte[] json = pretty ? null : this.serializedJson();
+		if (json != null) {
+			// decodes in chunks instead of creating a String of the whole document
+			new InputStreamReader(new ByteArrayInputStream(json), StandardCharsets.UTF_8).transferTo(writer);
+			return;
+		}
+		ObjectWriter objectWriter = pretty ? objectWriterPrettyStream : objectWriterDefaultStream;
+		objectWriter.writeValue(writer, this.getJsonObject());
+	}
+
+	// the serialized form, if it is known without writing the map; the map of a mutable object can be changed directly
+	// at any time, so only content that cannot change (unmodified raw bytes, or an immutable object) is reused
+	byte[] serializedJson() {
+		if (this.getJsonObject() instanceof LazyJsonLDMap lazyJsonLDMap && ! lazyJsonLDMap.isModified()) return lazyJsonLDMap.getBytes();
+		return null;
+	}
+
+	static byte[] writeJsonBytes(Map<String, Object> jsonObject) {
+		try {
+			return objectWriterDefault.writeValueAsBytes(jsonObject);
+		} catch (JsonProcessingException ex) {
+			throw new RuntimeException("Cannot write JSON: " + ex.getMessage(), ex);
+		}
+	}
+
+	public void toBinary(OutputStream outputStream) throws IOException {
+		JsonLDBinaryCodec.write(this.getJsonObject(), outputStream);
+	}
+
 	public String normalize() throws JsonLDException, IOException {
-		RdfCanon rdfCanon = RdfCanon.create("SHA-256");
-		StringWriter stringWriter = new StringWriter();
-		RdfQuadConsumer nQuadsWriter = new NQuadsWriter(stringWriter);
+		return this.normalize(Collections.emptySet());
+	}
+
+	public String normalize(Set<String> excludedTopLevelTerms) throws JsonLDException, IOException {
+		if (this.incrementalNormalization != null && this.getCanonicalizationLimits() == null) {
+			try {
+				String result = this.incrementalNormalization.normalize(this, excludedTopLevelTerms);
+				if (result != null) return result;
+			} catch (RdfConsumerException ex) {
+				throw new IOException("Cannot consume RDF: " + ex.getMessage(), ex);
+			} catch (JsonLdError ex) {
+				throw toJsonLDException(ex);
+			}
+		}
 
-        try {
-            this.toRdfApi().provide(rdfCanon);
-			rdfCanon.provide(nQuadsWriter);
-        } catch (RdfConsumerException ex) {
-            throw new IOException("Cannot consume RDF: " + ex.getMessage(), ex);
-        } catch (JsonLdError ex) {
-			throw new JsonLDException(ex);
-        }
+		CanonicalizationWorkspace workspace = CanonicalizationWorkspace.acquire();
+		CanonicalizationLimiter limiter = this.getCanonicalizationLimits() == null ? null : new CanonicalizationLimiter(this.getCanonicalizationLimits(), workspace);
 
-        return stringWriter.getBuffer().toString();
+		try {
+			this.rdfApi(excludedTopLevelTerms).provide(limiter == null ? workspace : limiter);
+			workspace.canonicalize(limiter == null ? RdfCanonTicker.EMPTY : limiter);
+			return workspace.getResult();
+		} catch (RdfConsumerException ex) {
+			JsonLDLimitExceededException limitExceededException = CanonicalizationLimiter.findLimitExceeded(ex);
+			if (limitExceededException != null) throw limitExceededException;
+			throw new IOException("Cannot consume RDF: " + ex.getMessage(), ex);
+		} catch (IllegalStateException ex) {
+			JsonLDLimitExceededException limitExceededException = CanonicalizationLimiter.findLimitExceeded(ex);
+			if (limitExceededException != null) throw limitExceededException;
+			throw ex;
+		} catch (JsonLdError ex) {
+			throw toJsonLDException(ex);
+		} finally {
+			workspace.release();
+		}
 	}
 
 	public String normalize(String algorithm) throws JsonLDException, NoSuchAlgorithmException, IOException {
@@ -412,10 +801,82 @@ public class JsonLDObject {
 		return Json.createObjectBuilder(this.getJsonObject()).build();
 	}
 
+	public synchronized JsonObject toJsonObject(Set<String> excludedTopLevelTerms) {
+		return Json.createObjectBuilder(excludingView(this.getJsonObject(), excludedTopLevelTerms)).build();
+	}
+
 	/*
 	 * Helper methods
 	 */
 
+	private static Map<String, Object> excludingView(Map<String, Object> jsonObject, Set<String> excludedTerms) {
+		if (excludedTerms == null || excludedTerms.isEmpty()) return jsonObject;
+		return new AbstractMap<>() {
+
+			@Override
+			public Object get(Object key) {
+				return excludedTerms.contains(key) ? null : jsonObject.get(key);
+			}
+
+			@Override
+			public boolean containsKey(Object key) {
+				return ! excludedTerms.contains(key) && jsonObject.containsKey(key);
+			}
+
+			@Override
+			public Set<Entry<String, Object>> entrySet() {
+				return new AbstractSet<>() {
+
+					@Override
+					public Iterator<Entry<String, Object>> iterator() {
+						return jsonObject.entrySet().stream().filter(entry -> ! excludedTerms.contains(entry.getKey())).iterator();
+					}
+
+					@Override
+					public int size() {
+						int size = jsonObject.size();
+						for (String excludedTerm : excludedTerms) if (jsonObject.containsKey(excludedTerm)) size--;
+						return size;
+					}
+				};
+			}
+		};
+	}
+
+	private static JsonLDException toJsonLDException(JsonLdError ex) {
+		JsonLDLimitExceededException limitExceededException = CanonicalizationLimiter.findLimitExceeded(ex);
+		if (limitExceededException != null) return limitExceededException;
+		if (ex.getCode() == JsonLdErrorCode.PROCESSING_TIMEOUT_EXCEEDED) return new JsonLDLimitExceededException(ex);
+		return new JsonLDException(ex);
+	}
+
+	private static final ClassValue<Function<Map<String, Object>, JsonLDObject>> fromMapFactories = new ClassValue<>() {
+		@Override
+		protected Function<Map<String, Object>, JsonLDObject> computeValue(Class<?> cl) {
+			MethodHandle methodHandle;
+			try {
+				Method method = cl.getMethod("fromMap", Map.class);
+				methodHandle = MethodHandles.lookup().unreflect(method).asType(MethodType.methodType(JsonLDObject.class, Map.class));
+			} catch (IllegalAccessException | NoSuchMethodException ex) {
+				throw new RuntimeException(ex);
+			}
+			return jsonObject -> {
+				try {
+					return (JsonLDObject) methodHandle.invokeExact(jsonObject);
+				} catch (RuntimeException | Error ex) {
+					throw ex;
+				} catch (Throwable ex) {
+					throw new RuntimeException(ex);
+				}
+			};
+		}
+	};
+
+	@SuppressWarnings("unchecked")
+	public static <C extends JsonLDObject> Function<Map<String, Object>, C> getFromMapFactory(Class<C> cl) {
+		return (Function<Map<String, Object>, C>) (Function<?, ?>) fromMapFactories.get(cl);
+	}
+
 	public static <C extends JsonLDObject> DocumentLoader getDefaultDocumentLoader(Class<C> cl) {
 		try {
 			Field field = cl.getField("DEFAULT_DOCUMENT_LOADER");
@@ -469,8 +930,17 @@ public class JsonLDObject {
 		return Objects.equals(this.getJsonObject(), that.getJsonObject());
 	}
 
+	// with digest equality, the hash code is cached like the digest, so an object used as a key must be changed
+	// through its setters and JsonLDUtils, or markModified() must be called after changing its map directly
 	@Override
 	public int hashCode() {
-		return Objects.hash(this.getJsonObject());
+		if (! this.isDigestEquality()) return Objects.hash(this.getJsonObject());
+		Cached<Integer> hashCode = this.hashCode;
+		long modificationCount = this.modificationCount;
+		if (hashCode == null || hashCode.modificationCount() != modificationCount) {
+			hashCode = new Cached<>(Objects.hash(this.getJsonObject()), modificationCount);
+			this.hashCode = hashCode;
+		}
+		return hashCode.value();
 	}
 }
\ No newline at end of file
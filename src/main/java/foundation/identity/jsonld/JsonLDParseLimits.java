@@ -0,0 +1,148 @@
+package foundation.identity.jsonld;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.StreamReadConstraints;
+import com.fasterxml.jackson.core.exc.StreamConstraintsException;
+
+import java.io.FilterInputStream;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+
+public class JsonLDParseLimits {
+
+	public static final int UNLIMITED = -1;
+
+	private final long maxChars;
+	private final int maxDepth;
+	private final int maxMapEntries;
+	private final int maxArrayLength;
+	private final int maxStringLength;
+	private final JsonFactory jsonFactory;
+
+	public JsonLDParseLimits(long maxChars, int maxDepth, int maxMapEntries, int maxArrayLength, int maxStringLength) {
+		this.maxChars = maxChars;
+		this.maxDepth = maxDepth;
+		this.maxMapEntries = maxMapEntries;
+		this.maxArrayLength = maxArrayLength;
+		this.maxStringLength = maxStringLength;
+
+		StreamReadConstraints.Builder streamReadConstraints = StreamReadConstraints.builder();
+		if (maxDepth != UNLIMITED) streamReadConstraints.maxNestingDepth(maxDepth);
+		if (maxStringLength != UNLIMITED) streamReadConstraints.maxStringLength(maxStringLength);
+		this.jsonFactory = JsonFactory.builder().streamReadConstraints(streamReadConstraints.build()).build();
+	}
+
+	/*
+	 * Checking limits
+	 */
+
+	JsonFactory getJsonFactory() {
+		return this.jsonFactory;
+	}
+
+	// counts characters read from the reader, not encoded bytes, so it also works for sources that are already decoded
+	Reader limitReader(Reader reader) {
+		if (this.maxChars == UNLIMITED) return reader;
+		return new FilterReader(reader) {
+
+			private long count = 0;
+
+			@Override
+			public int read() throws IOException {
+				int c = super.read();
+				if (c != -1) this.count(1);
+				return c;
+			}
+
+			@Override
+			public int read(char[] cbuf, int off, int len) throws IOException {
+				int n = super.read(cbuf, off, len);
+				if (n > 0) this.count(n);
+				return n;
+			}
+
+			private void count(int n) throws StreamConstraintsException {
+				this.count += n;
+				if (this.count > JsonLDParseLimits.this.maxChars) throw new StreamConstraintsException("Maximum document length exceeded: " + JsonLDParseLimits.this.maxChars);
+			}
+		};
+	}
+
+	// used for binary documents, where the length limit counts bytes
+	InputStream limitInputStream(InputStream inputStream) {
+		if (this.maxChars == UNLIMITED) return inputStream;
+		return new FilterInputStream(inputStream) {
+
+			private long count = 0;
+
+			@Override
+			public int read() throws IOException {
+				int b = super.read();
+				if (b != -1) this.count(1);
+				return b;
+			}
+
+			@Override
+			public int read(byte[] b, int off, int len) throws IOException {
+				int n = super.read(b, off, len);
+				if (n > 0) this.count(n);
+				return n;
+			}
+
+			private void count(int n) throws StreamConstraintsException {
+				this.count += n;
+				if (this.count > JsonLDParseLimits.this.maxChars) throw new StreamConstraintsException("Maximum document length exceeded: " + JsonLDParseLimits.this.maxChars);
+			}
+		};
+	}
+
+	void checkDepth(int depth) throws StreamConstraintsException {
+		if (this.maxDepth != UNLIMITED && depth > this.maxDepth) {
+			throw new StreamConstraintsException("Maximum nesting depth exceeded: " + this.maxDepth);
+		}
+	}
+
+	void checkStringLength(int stringLength) throws StreamConstraintsException {
+		if (this.maxStringLength != UNLIMITED && stringLength > this.maxStringLength) {
+			throw new StreamConstraintsException("Maximum string length exceeded: " + this.maxStringLength);
+		}
+	}
+
+	void checkMapEntries(int mapEntries) throws StreamConstraintsException {
+		if (this.maxMapEntries != UNLIMITED && mapEntries > this.maxMapEntries) {
+			throw new StreamConstraintsException("Maximum number of map entries exceeded: " + this.maxMapEntries);
+		}
+	}
+
+	void checkArrayLength(int arrayLength) throws StreamConstraintsException {
+		if (this.maxArrayLength != UNLIMITED && arrayLength > this.maxArrayLength) {
+			throw new StreamConstraintsException("Maximum array length exceeded: " + this.maxArrayLength);
+		}
+	}
+
+	/*
+	 * Getters
+	 */
+
+	public long getMaxChars() {
+		return this.maxChars;
+	}
+
+	public int getMaxDepth() {
+		return this.maxDepth;
+	}
+
+	public int getMaxMapEntries() {
+		return this.maxMapEntries;
+	}
+
+	public int getMaxArrayLength() {
+		return this.maxArrayLength;
+	}
+
+	public int getMaxStringLength() {
+		return this.maxStringLength;
+	}
+}
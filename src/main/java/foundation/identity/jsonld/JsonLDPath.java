@@ -0,0 +1,235 @@
+package foundation.identity.jsonld;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+public class JsonLDPath {
+
+	private final String expression;
+	private final String[] terms;
+	private final int[] indices;
+
+	private JsonLDPath(String expression, String[] terms, int[] indices) {
+		this.expression = expression;
+		this.terms = terms;
+		this.indices = indices;
+	}
+
+	/*
+	 * Compiling paths
+	 */
+
+	public static JsonLDPath compile(String expression) {
+
+		if (expression == null) throw new NullPointerException();
+
+		List<String> terms = new ArrayList<>();
+		List<Integer> indices = new ArrayList<>();
+
+		int i = 0;
+		int length = expression.length();
+		while (i < length) {
+			char c = expression.charAt(i);
+			if (c == '[') {
+				int end = expression.indexOf(']', i);
+				if (end == -1) throw new IllegalArgumentException("Invalid JSON-LD path (unclosed bracket): " + expression);
+				String bracket = expression.substring(i + 1, end);
+				if (bracket.length() >= 2 && (bracket.charAt(0) == '\'' || bracket.charAt(0) == '"') && bracket.charAt(bracket.length() - 1) == bracket.charAt(0)) {
+					terms.add(bracket.substring(1, bracket.length() - 1));
+					indices.add(-1);
+				} else {
+					try {
+						int index = Integer.parseInt(bracket);
+						if (index < 0) throw new NumberFormatException();
+						terms.add(null);
+						indices.add(index);
+					} catch (NumberFormatException ex) {
+						throw new IllegalArgumentException("Invalid JSON-LD path (invalid index '" + bracket + "'): " + expression);
+					}
+				}
+				i = end + 1;
+			} else if (c == '.') {
+				if (i == 0 || i == length - 1 || expression.charAt(i + 1) == '.' || expression.charAt(i + 1) == '[') throw new IllegalArgumentException("Invalid JSON-LD path (empty term): " + expression);
+				i++;
+			} else {
+				int end = i;
+				while (end < length && expression.charAt(end) != '.' && expression.charAt(end) != '[') end++;
+				terms.add(expression.substring(i, end));
+				indices.add(-1);
+				i = end;
+			}
+		}
+
+		if (terms.isEmpty()) throw new IllegalArgumentException("Invalid JSON-LD path (no terms): " + expression);
+
+		int[] indicesArray = new int[indices.size()];
+		for (int j = 0; j < indicesArray.length; j++) indicesArray[j] = indices.get(j);
+		return new JsonLDPath(expression, terms.toArray(new String[0]), indicesArray);
+	}
+
+	public static Batch batch(Collection<JsonLDPath> paths) {
+		return new Batch(paths);
+	}
+
+	public static Batch batch(JsonLDPath... paths) {
+		return new Batch(Arrays.asList(paths));
+	}
+
+	/*
+	 * Selecting values
+	 */
+
+	public void select(Object jsonLdObject, Consumer<Object> consumer) {
+		select(unwrap(jsonLdObject), this.terms, this.indices, 0, value -> { consumer.accept(value); return true; });
+	}
+
+	public List<Object> select(Object jsonLdObject) {
+		List<Object> results = new ArrayList<>();
+		select(unwrap(jsonLdObject), this.terms, this.indices, 0, results::add);
+		return results;
+	}
+
+	public Object selectFirst(Object jsonLdObject) {
+		Object[] result = new Object[1];
+		select(unwrap(jsonLdObject), this.terms, this.indices, 0, value -> { result[0] = value; return false; });
+		return result[0];
+	}
+
+	private static boolean select(Object value, String[] terms, int[] indices, int i, Predicate<Object> consumer) {
+
+		if (i == terms.length) return emit(value, consumer);
+
+		if (terms[i] == null) {
+			Object indexed = index(value, indices[i]);
+			return indexed == null || select(indexed, terms, indices, i + 1, consumer);
+		}
+
+		if (value instanceof List<?> list) {
+			for (Object entry : list) {
+				if (! select(unwrap(entry), terms, indices, i, consumer)) return false;
+			}
+			return true;
+		}
+
+		if (value instanceof Map<?, ?> map) {
+			Object termValue = unwrap(map.get(terms[i]));
+			return termValue == null || select(termValue, terms, indices, i + 1, consumer);
+		}
+
+		return true;
+	}
+
+	private static boolean emit(Object value, Predicate<Object> consumer) {
+		if (value instanceof List<?> list) {
+			for (Object entry : list) {
+				if (! emit(unwrap(entry), consumer)) return false;
+			}
+			return true;
+		}
+		return value == null || consumer.test(value);
+	}
+
+	private static Object index(Object value, int index) {
+		if (value instanceof List<?> list) return index < list.size() ? unwrap(list.get(index)) : null;
+		return index == 0 ? value : null;
+	}
+
+	private static Object unwrap(Object value) {
+		return value instanceof JsonLDObject jsonLdObject ? jsonLdObject.getJsonObject() : value;
+	}
+
+	/*
+	 * Selecting values of many paths in one traversal
+	 */
+
+	public static class Batch {
+
+		private final List<JsonLDPath> paths;
+		private final Node root;
+
+		private Batch(Collection<JsonLDPath> paths) {
+			this.paths = List.copyOf(new LinkedHashSet<>(paths));
+			this.root = new Node();
+			for (JsonLDPath path : this.paths) {
+				Node node = this.root;
+				for (int i = 0; i < path.terms.length; i++) {
+					node = path.terms[i] == null ? node.indices.computeIfAbsent(path.indices[i], x -> new Node()) : node.terms.computeIfAbsent(path.terms[i], x -> new Node());
+				}
+				node.paths.add(path);
+			}
+		}
+
+		public Map<JsonLDPath, List<Object>> select(Object jsonLdObject) {
+			Map<JsonLDPath, List<Object>> results = new LinkedHashMap<>();
+			for (JsonLDPath path : this.paths) results.put(path, new ArrayList<>());
+			select(unwrap(jsonLdObject), this.root, results);
+			return results;
+		}
+
+		private static void select(Object value, Node node, Map<JsonLDPath, List<Object>> results) {
+
+			for (JsonLDPath path : node.paths) emit(value, results.get(path)::add);
+
+			for (Map.Entry<Integer, Node> entry : node.indices.entrySet()) {
+				Object indexed = index(value, entry.getKey());
+				if (indexed != null) select(indexed, entry.getValue(), results);
+			}
+
+			if (! node.terms.isEmpty()) selectTerms(value, node, results);
+		}
+
+		private static void selectTerms(Object value, Node node, Map<JsonLDPath, List<Object>> results) {
+
+			if (value instanceof List<?> list) {
+				for (Object entry : list) selectTerms(unwrap(entry), node, results);
+			} else if (value instanceof Map<?, ?> map) {
+				for (Map.Entry<String, Node> entry : node.terms.entrySet()) {
+					Object termValue = unwrap(map.get(entry.getKey()));
+					if (termValue != null) select(termValue, entry.getValue(), results);
+				}
+			}
+		}
+
+		public List<JsonLDPath> getPaths() {
+			return this.paths;
+		}
+	}
+
+	private static final class Node {
+
+		private final Map<String, Node> terms = new LinkedHashMap<>();
+		private final Map<Integer, Node> indices = new LinkedHashMap<>();
+		private final List<JsonLDPath> paths = new ArrayList<>(1);
+	}
+
+	/*
+	 * Getters
+	 */
+
+	public String getExpression() {
+		return this.expression;
+	}
+
+	/*
+	 * Object methods
+	 */
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		JsonLDPath that = (JsonLDPath) o;
+		return Arrays.equals(this.terms, that.terms) && Arrays.equals(this.indices, that.indices);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Arrays.hashCode(this.terms) + Arrays.hashCode(this.indices);
+	}
+
+	@Override
+	public String toString() {
+		return this.expression;
+	}
+}
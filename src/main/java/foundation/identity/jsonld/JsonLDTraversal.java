@@ -0,0 +1,180 @@
+package foundation.identity.jsonld;
+
+import java.util.*;
+
+public class JsonLDTraversal {
+
+	public enum Result {
+		CONTINUE,
+		SKIP_CHILDREN,
+		TERMINATE
+	}
+
+	public interface Visitor {
+
+		default Result visitMap(Path path, Map<String, ?> map) {
+			return Result.CONTINUE;
+		}
+
+		default Result visitList(Path path, List<?> list) {
+			return Result.CONTINUE;
+		}
+
+		default Result visitScalar(Path path, Object value) {
+			return Result.CONTINUE;
+		}
+	}
+
+	/*
+	 * Traversing
+	 */
+
+	public static boolean traverse(Object value, Visitor visitor) {
+
+		Path path = new Path();
+		Deque<Frame> stack = new ArrayDeque<>();
+
+		if (visit(value, path, visitor, stack) == Result.TERMINATE) return false;
+
+		while (! stack.isEmpty()) {
+
+			Frame frame = stack.peek();
+
+			if (! frame.iterator.hasNext()) {
+				stack.pop();
+				if (! stack.isEmpty()) path.pop();
+				continue;
+			}
+
+			Object child;
+			if (frame.map) {
+				Map.Entry<?, ?> entry = (Map.Entry<?, ?>) frame.iterator.next();
+				path.push((String) entry.getKey());
+				child = entry.getValue();
+			} else {
+				path.push(frame.index++);
+				child = frame.iterator.next();
+			}
+
+			if (visit(child, path, visitor, stack) == Result.TERMINATE) return false;
+			if (stack.peek() == frame) path.pop();
+		}
+
+		return true;
+	}
+
+	private static Result visit(Object value, Path path, Visitor visitor, Deque<Frame> stack) {
+
+		if (value instanceof JsonLDObject jsonLdObject) value = jsonLdObject.getJsonObject();
+
+		if (value instanceof Map<?, ?> map) {
+			@SuppressWarnings("unchecked") Map<String, ?> jsonObject = (Map<String, ?>) map;
+			Result result = visitor.visitMap(path, jsonObject);
+			if (result == Result.CONTINUE && ! map.isEmpty()) stack.push(new Frame(map.entrySet().iterator(), true));
+			return result;
+		} else if (value instanceof List<?> list) {
+			Result result = visitor.visitList(path, list);
+			if (result == Result.CONTINUE && ! list.isEmpty()) stack.push(new Frame(list.iterator(), false));
+			return result;
+		} else {
+			return visitor.visitScalar(path, value);
+		}
+	}
+
+	private static final class Frame {
+
+		private final Iterator<?> iterator;
+		private final boolean map;
+		private int index;
+
+		private Frame(Iterator<?> iterator, boolean map) {
+			this.iterator = iterator;
+			this.map = map;
+			this.index = 0;
+		}
+	}
+
+	/*
+	 * Path of the value currently being visited; only valid during the visitor callback
+	 */
+
+	public static final class Path {
+
+		private String[] keys;
+		private int[] indices;
+		private int depth;
+
+		private Path() {
+			this.keys = new String[16];
+			this.indices = new int[16];
+			this.depth = 0;
+		}
+
+		private void push(String key) {
+			this.ensureCapacity();
+			this.keys[this.depth] = key;
+			this.indices[this.depth] = -1;
+			this.depth++;
+		}
+
+		private void push(int index) {
+			this.ensureCapacity();
+			this.keys[this.depth] = null;
+			this.indices[this.depth] = index;
+			this.depth++;
+		}
+
+		private void pop() {
+			this.keys[--this.depth] = null;
+		}
+
+		private void ensureCapacity() {
+			if (this.depth < this.keys.length) return;
+			this.keys = Arrays.copyOf(this.keys, this.keys.length * 2);
+			this.indices = Arrays.copyOf(this.indices, this.indices.length * 2);
+		}
+
+		public int getDepth() {
+			return this.depth;
+		}
+
+		public boolean isIndex(int i) {
+			if (i < 0 || i >= this.depth) throw new IndexOutOfBoundsException(i);
+			return this.keys[i] == null;
+		}
+
+		public String getKey(int i) {
+			if (i < 0 || i >= this.depth) throw new IndexOutOfBoundsException(i);
+			return this.keys[i];
+		}
+
+		public int getIndex(int i) {
+			if (i < 0 || i >= this.depth) throw new IndexOutOfBoundsException(i);
+			return this.indices[i];
+		}
+
+		public String getLastKey() {
+			return this.depth == 0 ? null : this.keys[this.depth - 1];
+		}
+
+		public List<Object> toList() {
+			List<Object> list = new ArrayList<>(this.depth);
+			for (int i = 0; i < this.depth; i++) list.add(this.keys[i] != null ? this.keys[i] : (Object) this.indices[i]);
+			return list;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder stringBuilder = new StringBuilder();
+			for (int i = 0; i < this.depth; i++) {
+				if (this.keys[i] == null) {
+					stringBuilder.append('[').append(this.indices[i]).append(']');
+				} else {
+					if (! stringBuilder.isEmpty()) stringBuilder.append('.');
+					stringBuilder.append(this.keys[i]);
+				}
+			}
+			return stringBuilder.toString();
+		}
+	}
+}
@@ -3,6 +3,9 @@ package foundation.identity.jsonld;
 import com.google.api.client.util.DateTime;
 
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -44,12 +47,18 @@ public class JsonLDUtils {
 	 */
 
 	public static void jsonLdAddAll(JsonLDObject jsonLdObject, Map<String, Object> jsonObject) {
-		jsonLdObject.getJsonObject().putAll(jsonObject);
+		for (Map.Entry<String, Object> entry : jsonObject.entrySet()) {
+			jsonLdObject.markModified(entry.getKey());
+			Object value = entry.getValue();
+			if (value instanceof List<?>) value = new ArrayList<>((List<?>) value);
+			jsonLdObject.getJsonObject().put(entry.getKey(), value);
+		}
 	}
 
 	public static void jsonLdAdd(JsonLDObject jsonLdObject, String term, Object value) {
 
 		if (jsonLdObject.getJsonObject() == null || term == null || value == null) throw new NullPointerException();
+		jsonLdObject.markModified(term);
 
 		Object jsonValueExisting = jsonLdObject.getJsonObject().get(term);
 
@@ -63,14 +72,28 @@ public class JsonLDUtils {
 			else
 				jsonLdObject.getJsonObject().put(term, jsonLdObjectOrId(value));
 		} else if (jsonValueExisting instanceof List<?>) {
-			List<Object> jsonArray = new ArrayList<>((List<Object>) jsonValueExisting);
-			jsonArray.add(value);
-			jsonLdObject.getJsonObject().put(term, jsonLdObjectOrId(jsonArray));
+			List<Object> jsonArray = jsonLdMutableArray(jsonLdObject, term, (List<Object>) jsonValueExisting, 1);
+			jsonArray.add(jsonLdObjectOrId(value));
 		} else {
 			List<Object> jsonArray = new ArrayList<>();
-			jsonArray.add(jsonValueExisting);
-			jsonArray.add(value);
-			jsonLdObject.getJsonObject().put(term, jsonLdObjectOrId(jsonArray));
+			jsonArray.add(jsonLdObjectOrId(jsonValueExisting));
+			jsonArray.add(jsonLdObjectOrId(value));
+			jsonLdObject.getJsonObject().put(term, jsonArray);
+		}
+	}
+
+	public static void jsonLdAddAll(JsonLDObject jsonLdObject, String term, List<?> values) {
+
+		if (jsonLdObject.getJsonObject() == null || term == null || values == null) throw new NullPointerException();
+		if (values.isEmpty()) return;
+		jsonLdObject.markModified(term);
+
+		Object jsonValueExisting = jsonLdObject.getJsonObject().get(term);
+
+		if (jsonValueExisting == null && values.size() == 1) {
+			jsonLdObject.getJsonObject().put(term, jsonLdObjectOrId(values.get(0)));
+		} else {
+			jsonLdAddAsJsonArray(jsonLdObject, term, values);
 		}
 	}
 
@@ -78,21 +101,22 @@ public class JsonLDUtils {
 
 		if (jsonLdObject.getJsonObject() == null || term == null || values == null) throw new NullPointerException();
 		if (values.isEmpty()) return;
+		jsonLdObject.markModified(term);
 
 		Object jsonValueExisting = jsonLdObject.getJsonObject().get(term);
 
 		if (jsonValueExisting == null)  {
-			List<Object> jsonArray = new ArrayList<>(values);
-			jsonLdObject.getJsonObject().put(term, jsonLdObjectOrId(jsonArray));
+			List<Object> jsonArray = new ArrayList<>(values.size());
+			jsonLdAddAllObjectOrId(jsonArray, values);
+			jsonLdObject.getJsonObject().put(term, jsonArray);
 		} else if (jsonValueExisting instanceof List<?>)  {
-			List<Object> jsonArray = new ArrayList<>((List<Object>) jsonValueExisting);
-			jsonArray.addAll(values);
-			jsonLdObject.getJsonObject().put(term, jsonLdObjectOrId(jsonArray));
+			List<Object> jsonArray = jsonLdMutableArray(jsonLdObject, term, (List<Object>) jsonValueExisting, values.size());
+			jsonLdAddAllObjectOrId(jsonArray, values);
 		} else {
-			List<Object> jsonArray = new ArrayList<>();
-			jsonArray.add(jsonValueExisting);
-			jsonArray.addAll(values);
-			jsonLdObject.getJsonObject().put(term, jsonLdObjectOrId(jsonArray));
+			List<Object> jsonArray = new ArrayList<>(values.size() + 1);
+			jsonArray.add(jsonLdObjectOrId(jsonValueExisting));
+			jsonLdAddAllObjectOrId(jsonArray, values);
+			jsonLdObject.getJsonObject().put(term, jsonArray);
 		}
 	}
 
@@ -107,7 +131,9 @@ public class JsonLDUtils {
 
 	public static void jsonLdRemove(JsonLDObject jsonLdObject, String term) {
 
-		jsonLdObject.getJsonObject().remove(term);
+		jsonLdObject.markModified(term);
+		// the removed value is not needed, so a lazily parsed map does not have to parse it
+		jsonLdObject.getJsonObject().keySet().remove(term);
 	}
 
 	/*
@@ -218,10 +244,93 @@ public class JsonLDUtils {
 			return false;
 	}
 
+	/*
+	 * digest
+	 */
+
+	public static byte[] jsonLdDigest(Map<String, Object> jsonObject) {
+		return jsonLdDigest(jsonObject, Collections.emptySet());
+	}
+
+	public static byte[] jsonLdDigest(Map<String, Object> jsonObject, Set<String> excludedTopLevelTerms) {
+
+		MessageDigest messageDigest;
+		try {
+			messageDigest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex.getMessage(), ex);
+		}
+		jsonLdDigestMap(messageDigest, jsonObject, excludedTopLevelTerms);
+		return messageDigest.digest();
+	}
+
 	/*
 	 * Helper methods
 	 */
 
+	private static void jsonLdDigest(MessageDigest messageDigest, Object value) {
+		if (value instanceof JsonLDObject jsonLdObject) {
+			jsonLdDigest(messageDigest, jsonLdObject.getJsonObject());
+		} else if (value instanceof Map<?, ?> map) {
+			jsonLdDigestMap(messageDigest, map, Collections.emptySet());
+		} else if (value instanceof List<?> list) {
+			messageDigest.update((byte) 'L');
+			jsonLdDigestLength(messageDigest, list.size());
+			for (Object entry : list) jsonLdDigest(messageDigest, entry);
+		} else if (value instanceof String string) {
+			byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+			messageDigest.update((byte) 'S');
+			jsonLdDigestLength(messageDigest, bytes.length);
+			messageDigest.update(bytes);
+		} else if (value instanceof Number number) {
+			messageDigest.update((byte) 'N');
+			jsonLdDigest(messageDigest, number.toString());
+		} else if (value instanceof Boolean bool) {
+			messageDigest.update((byte) (bool ? 'T' : 'F'));
+		} else if (value == null) {
+			messageDigest.update((byte) 'Z');
+		} else {
+			messageDigest.update((byte) 'O');
+			jsonLdDigest(messageDigest, value.toString());
+		}
+	}
+
+	private static void jsonLdDigestMap(MessageDigest messageDigest, Map<?, ?> map, Set<String> excludedTerms) {
+		String[] keys = map.keySet().toArray(new String[0]);
+		Arrays.sort(keys);
+		int length = keys.length;
+		for (String key : keys) if (excludedTerms.contains(key)) length--;
+		messageDigest.update((byte) 'M');
+		jsonLdDigestLength(messageDigest, length);
+		for (String key : keys) {
+			if (excludedTerms.contains(key)) continue;
+			jsonLdDigest(messageDigest, key);
+			jsonLdDigest(messageDigest, map.get(key));
+		}
+	}
+
+	private static void jsonLdDigestLength(MessageDigest messageDigest, int length) {
+		messageDigest.update((byte) (length >>> 24));
+		messageDigest.update((byte) (length >>> 16));
+		messageDigest.update((byte) (length >>> 8));
+		messageDigest.update((byte) length);
+	}
+
+	private static List<Object> jsonLdMutableArray(JsonLDObject jsonLdObject, String term, List<Object> jsonArray, int additional) {
+		if (jsonArray instanceof ArrayList<Object> arrayList) {
+			arrayList.ensureCapacity(arrayList.size() + additional);
+			return arrayList;
+		}
+		List<Object> mutableJsonArray = new ArrayList<>(jsonArray.size() + additional);
+		mutableJsonArray.addAll(jsonArray);
+		jsonLdObject.getJsonObject().put(term, mutableJsonArray);
+		return mutableJsonArray;
+	}
+
+	private static void jsonLdAddAllObjectOrId(List<Object> jsonArray, List<?> values) {
+		for (Object value : values) jsonArray.add(jsonLdObjectOrId(value));
+	}
+
 	private static Object jsonLdObjectOrId(Object value) {
 		if (value instanceof Map<?, ?>) {
 			Map<String, Object> map = (Map<String, Object>) value;
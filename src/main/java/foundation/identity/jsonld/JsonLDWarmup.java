@@ -0,0 +1,192 @@
+package foundation.identity.jsonld;
+
+import com.apicatalog.jsonld.JsonLdError;
+import com.apicatalog.jsonld.loader.DocumentLoader;
+import com.apicatalog.jsonld.loader.DocumentLoaderOptions;
+import foundation.identity.jsonld.validation.Validation;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+public class JsonLDWarmup {
+
+	private static final Logger log = Logger.getLogger(JsonLDWarmup.class.getName());
+
+	public static final int DEFAULT_ITERATIONS = 100;
+
+	// self-contained, so that it can be processed without any remote or local contexts
+	private static final String BUILT_IN_DOCUMENT = """
+			{
+				"@context": {
+					"@version": 1.1,
+					"id": "@id",
+					"type": "@type",
+					"ex": "https://example.com/vocab#",
+					"Person": "ex:Person",
+					"name": "ex:name",
+					"knows": { "@id": "ex:knows", "@type": "@id" },
+					"issued": { "@id": "ex:issued", "@type": "http://www.w3.org/2001/XMLSchema#dateTime" },
+					"address": "ex:address",
+					"street": "ex:street",
+					"tags": { "@id": "ex:tags", "@container": "@set" }
+				},
+				"id": "https://example.com/people/1",
+				"type": "Person",
+				"name": "Alice",
+				"issued": "2020-01-01T00:00:00Z",
+				"knows": [ "https://example.com/people/2", "https://example.com/people/3" ],
+				"address": { "street": "Main Street 1" },
+				"tags": [ "a", "b", 1, true ]
+			}
+			""";
+
+	// runAsync() can run while the warmup is still being configured
+	private final List<String> documents = new CopyOnWriteArrayList<>();
+	private final List<URI> contexts = new CopyOnWriteArrayList<>();
+	private volatile DocumentLoader documentLoader = null;
+	private volatile int iterations = DEFAULT_ITERATIONS;
+	private volatile boolean validate = true;
+
+	// tied to this warmup's documents, contexts and document loader, and replaced whenever they change
+	private volatile CountDownLatch warm = new CountDownLatch(1);
+
+	public record Result(int documents, int contexts, int iterations, int operations, int failures, Duration duration) {
+	}
+
+	public JsonLDWarmup() {
+
+	}
+
+	/*
+	 * Configuration
+	 */
+
+	public JsonLDWarmup addDocument(String json) {
+		this.documents.add(json);
+		this.configurationChanged();
+		return this;
+	}
+
+	public JsonLDWarmup addDocument(Path path) throws IOException {
+		return this.addDocument(Files.readString(path, StandardCharsets.UTF_8));
+	}
+
+	public JsonLDWarmup addContexts(Collection<URI> contexts) {
+		this.contexts.addAll(contexts);
+		this.configurationChanged();
+		return this;
+	}
+
+	public JsonLDWarmup documentLoader(DocumentLoader documentLoader) {
+		this.documentLoader = documentLoader;
+		this.configurationChanged();
+		return this;
+	}
+
+	public JsonLDWarmup iterations(int iterations) {
+		this.iterations = iterations;
+		return this;
+	}
+
+	public JsonLDWarmup validate(boolean validate) {
+		this.validate = validate;
+		return this;
+	}
+
+	/*
+	 * Running
+	 */
+
+	public Result run() {
+
+		long start = System.nanoTime();
+		CountDownLatch warm = this.warm;
+		DocumentLoader documentLoader = this.documentLoader != null ? this.documentLoader : ConfigurableDocumentLoader.DOCUMENT_LOADER;
+
+		// fill the document loader caches with the contexts and everything they depend on, and count the ones that could be loaded
+		int contexts = 0;
+		if (documentLoader instanceof ConfigurableDocumentLoader configurableDocumentLoader) {
+			Set<URI> loaded = ConcurrentHashMap.newKeySet();
+			configurableDocumentLoader.getContextClosure(this.contexts, loaded);
+			contexts = loaded.size();
+		} else {
+			for (URI context : this.contexts) {
+				try {
+					if (documentLoader.loadDocument(context, new DocumentLoaderOptions()) != null) contexts++;
+				} catch (JsonLdError ex) {
+					log.warning("Cannot load context during warmup: " + context + " (" + ex.getMessage() + ")");
+				}
+			}
+		}
+
+		List<String> documents = this.documents.isEmpty() ? List.of(BUILT_IN_DOCUMENT) : List.copyOf(this.documents);
+		int iterations = this.iterations;
+		int operations = 0;
+		int failures = 0;
+		for (int i = 0; i < iterations; i++) {
+			for (String document : documents) {
+				try {
+					JsonLDObject jsonLdObject = JsonLDObject.fromJson(document);
+					jsonLdObject.setDocumentLoader(documentLoader);
+					if (this.validate) Validation.validate(jsonLdObject);
+					jsonLdObject.normalize();
+					jsonLdObject.toJson();
+					operations++;
+				} catch (Exception ex) {
+					if (failures++ == 0) log.warning("Cannot process document during warmup: " + ex.getMessage());
+				}
+			}
+		}
+
+		if (operations > 0) warm.countDown();
+		return new Result(documents.size(), contexts, iterations, operations, failures, Duration.ofNanos(System.nanoTime() - start));
+	}
+
+	public CompletableFuture<Result> runAsync(Executor executor) {
+		return CompletableFuture.supplyAsync(this::run, executor);
+	}
+
+	/*
+	 * Warm state
+	 */
+
+	public boolean isWarm() {
+		return this.warm.getCount() == 0;
+	}
+
+	public boolean awaitWarm(Duration timeout) throws InterruptedException {
+		return this.warm.await(timeout.toNanos(), TimeUnit.NANOSECONDS);
+	}
+
+	private synchronized void configurationChanged() {
+		if (this.warm.getCount() == 0) this.warm = new CountDownLatch(1);
+	}
+
+	/*
+	 * Command line, e.g. for generating a CDS class list with -XX:DumpLoadedClassList or -XX:ArchiveClassesAtExit
+	 */
+
+	public static void main(String[] args) throws IOException {
+
+		JsonLDWarmup jsonLDWarmup = new JsonLDWarmup();
+		for (String arg : args) jsonLDWarmup.addDocument(Path.of(arg));
+
+		Result result = jsonLDWarmup.run();
+		System.out.println(result);
+		if (result.operations() == 0) System.exit(1);
+	}
+}
@@ -0,0 +1,263 @@
+package foundation.identity.jsonld;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.*;
+
+final class LazyJsonLDMap extends AbstractMap<String, Object> {
+
+	private static final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final byte[] bytes;
+	private final Map<String, Object> values;
+	private final Map<String, Slice> materializedContainers;
+	private boolean modified = false;
+
+	private record Slice(int offset, int length) {
+	}
+
+	LazyJsonLDMap(byte[] bytes) {
+		this.bytes = bytes;
+		this.values = new LinkedHashMap<>();
+		this.materializedContainers = new HashMap<>();
+		try (JsonParser jsonParser = objectMapper.createParser(bytes)) {
+			if (jsonParser.nextToken() != JsonToken.START_OBJECT) throw new IOException("JSON-LD document is not a JSON object.");
+			String key = null;
+			int valueOffset = -1;
+			JsonToken jsonToken;
+			while ((jsonToken = jsonParser.nextToken()) != null) {
+				if (jsonToken == JsonToken.FIELD_NAME || jsonToken == JsonToken.END_OBJECT) {
+					int tokenOffset = (int) jsonParser.currentTokenLocation().getByteOffset();
+					if (key != null) this.values.put(key, new Slice(valueOffset, this.trimSeparator(valueOffset, tokenOffset) - valueOffset));
+					if (jsonToken == JsonToken.END_OBJECT) break;
+					key = jsonParser.currentName();
+					jsonParser.nextToken();
+					valueOffset = (int) jsonParser.currentTokenLocation().getByteOffset();
+					jsonParser.skipChildren();
+				}
+			}
+			if (jsonToken != JsonToken.END_OBJECT) throw new IOException("Unexpected end of JSON-LD document.");
+		} catch (IOException ex) {
+			throw new RuntimeException("Cannot read JSON: " + ex.getMessage(), ex);
+		}
+	}
+
+	// nested maps and lists that were handed out can be changed in place, so they are compared with the bytes they were parsed from
+	synchronized boolean isModified() {
+		if (this.modified) return true;
+		for (Map.Entry<String, Slice> entry : this.materializedContainers.entrySet()) {
+			if (! Objects.equals(this.values.get(entry.getKey()), this.parse(entry.getValue()))) {
+				this.modified = true;
+				break;
+			}
+		}
+		return this.modified;
+	}
+
+	synchronized void markModified() {
+		this.modified = true;
+	}
+
+	byte[] getBytes() {
+		return this.bytes;
+	}
+
+	private int trimSeparator(int start, int end) {
+		while (end > start && Character.isWhitespace(this.bytes[end - 1])) end--;
+		if (end > start && this.bytes[end - 1] == ',') end--;
+		while (end > start && Character.isWhitespace(this.bytes[end - 1])) end--;
+		return end;
+	}
+
+	private Object parse(Object value) {
+		if (! (value instanceof Slice slice)) return value;
+		try {
+			return objectMapper.readValue(this.bytes, slice.offset(), slice.length(), Object.class);
+		} catch (IOException ex) {
+			throw new RuntimeException("Cannot read JSON: " + ex.getMessage(), ex);
+		}
+	}
+
+	// synchronized, so that concurrent readers materialize each value once and all see the same instance
+	private synchronized Object materialize(String key, Object value) {
+		if (! (value instanceof Slice)) return value;
+		value = this.values.get(key);
+		if (! (value instanceof Slice slice)) return value;
+		Object materialized = this.parse(slice);
+		if (materialized instanceof Map || materialized instanceof List) this.materializedContainers.put(key, slice);
+		this.values.put(key, materialized);
+		return materialized;
+	}
+
+	private void replaced(Object key) {
+		this.modified = true;
+		this.materializedContainers.remove(key);
+	}
+
+	/*
+	 * Map methods
+	 */
+
+	@Override
+	public synchronized Object get(Object key) {
+		Object value = this.values.get(key);
+		return value instanceof Slice ? this.materialize((String) key, value) : value;
+	}
+
+	@Override
+	public synchronized boolean containsKey(Object key) {
+		return this.values.containsKey(key);
+	}
+
+	@Override
+	public synchronized int size() {
+		return this.values.size();
+	}
+
+	@Override
+	public synchronized Object put(String key, Object value) {
+		this.replaced(key);
+		Object previous = this.values.put(key, value);
+		return this.parse(previous);
+	}
+
+	@Override
+	public synchronized Object remove(Object key) {
+		this.replaced(key);
+		Object previous = this.values.remove(key);
+		return this.parse(previous);
+	}
+
+	@Override
+	public synchronized void clear() {
+		this.modified = true;
+		this.materializedContainers.clear();
+		this.values.clear();
+	}
+
+	// removing through the key set does not have to return the previous value, so its raw bytes are never parsed
+	@Override
+	public Set<String> keySet() {
+		return new AbstractSet<>() {
+
+			@Override
+			public int size() {
+				return LazyJsonLDMap.this.size();
+			}
+
+			@Override
+			public boolean contains(Object key) {
+				return LazyJsonLDMap.this.containsKey(key);
+			}
+
+			@Override
+			public boolean remove(Object key) {
+				synchronized (LazyJsonLDMap.this) {
+					if (! LazyJsonLDMap.this.values.containsKey(key)) return false;
+					LazyJsonLDMap.this.replaced(key);
+					LazyJsonLDMap.this.values.remove(key);
+					return true;
+				}
+			}
+
+			@Override
+			public Iterator<String> iterator() {
+				Iterator<String> iterator = LazyJsonLDMap.this.values.keySet().iterator();
+				return new Iterator<>() {
+
+					private String key;
+
+					@Override
+					public boolean hasNext() {
+						return iterator.hasNext();
+					}
+
+					@Override
+					public String next() {
+						return this.key = iterator.next();
+					}
+
+					@Override
+					public void remove() {
+						synchronized (LazyJsonLDMap.this) {
+							LazyJsonLDMap.this.replaced(this.key);
+							iterator.remove();
+						}
+					}
+				};
+			}
+		};
+	}
+
+	@Override
+	public Set<Entry<String, Object>> entrySet() {
+		return new AbstractSet<>() {
+
+			@Override
+			public int size() {
+				return LazyJsonLDMap.this.size();
+			}
+
+			@Override
+			public Iterator<Entry<String, Object>> iterator() {
+				Iterator<Entry<String, Object>> iterator = LazyJsonLDMap.this.values.entrySet().iterator();
+				return new Iterator<>() {
+
+					private String key;
+
+					@Override
+					public boolean hasNext() {
+						return iterator.hasNext();
+					}
+
+					@Override
+					public Entry<String, Object> next() {
+						Entry<String, Object> entry = iterator.next();
+						String key = this.key = entry.getKey();
+						return new Entry<>() {
+
+							@Override
+							public String getKey() {
+								return entry.getKey();
+							}
+
+							@Override
+							public Object getValue() {
+								return LazyJsonLDMap.this.materialize(entry.getKey(), entry.getValue());
+							}
+
+							@Override
+							public Object setValue(Object value) {
+								synchronized (LazyJsonLDMap.this) {
+									LazyJsonLDMap.this.replaced(key);
+									return LazyJsonLDMap.this.parse(entry.setValue(value));
+								}
+							}
+
+							@Override
+							public boolean equals(Object o) {
+								return o instanceof Entry<?, ?> that && Objects.equals(this.getKey(), that.getKey()) && Objects.equals(this.getValue(), that.getValue());
+							}
+
+							@Override
+							public int hashCode() {
+								return Objects.hashCode(this.getKey()) ^ Objects.hashCode(this.getValue());
+							}
+						};
+					}
+
+					@Override
+					public void remove() {
+						synchronized (LazyJsonLDMap.this) {
+							LazyJsonLDMap.this.replaced(this.key);
+							iterator.remove();
+						}
+					}
+				};
+			}
+		};
+	}
+}
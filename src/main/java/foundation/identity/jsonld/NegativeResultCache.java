@@ -0,0 +1,124 @@
+package foundation.identity.jsonld;
+
+import com.apicatalog.jsonld.JsonLdError;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class NegativeResultCache {
+
+    private static final Logger log = Logger.getLogger(NegativeResultCache.class.getName());
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 10000;
+    public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofSeconds(30);
+    public static final Duration DEFAULT_LOG_INTERVAL = Duration.ofMinutes(5);
+
+    private final long logInterval;
+    private final Ticker ticker;
+    private final Cache<URI, Entry> entries;
+
+    public static final class Entry {
+
+        private final AtomicLong count = new AtomicLong();
+        private volatile JsonLdError error;
+        private volatile long loggedAt;
+        private volatile long loggedCount;
+
+        private Entry() {
+        }
+
+        // a new instance for every caller, so that threads do not share one stack trace
+        public JsonLdError getError() {
+            JsonLdError error = this.error;
+            return error == null ? null : new JsonLdError(error.getCode(), error.getMessage());
+        }
+
+        public long getCount() {
+            return this.count.get();
+        }
+    }
+
+    public NegativeResultCache(int maximumSize, Duration timeToLive, Duration logInterval) {
+        this(maximumSize, timeToLive, logInterval, Ticker.systemTicker());
+    }
+
+    public NegativeResultCache() {
+        this(DEFAULT_MAXIMUM_SIZE, DEFAULT_TIME_TO_LIVE, DEFAULT_LOG_INTERVAL);
+    }
+
+    NegativeResultCache(int maximumSize, Duration timeToLive, Duration logInterval, Ticker ticker) {
+        this.logInterval = logInterval.toNanos();
+        this.ticker = ticker;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .ticker(ticker)
+                .build();
+    }
+
+    /*
+     * Looking up and recording results
+     */
+
+    public Entry getIfPresent(URI url) {
+        Entry entry = this.entries.getIfPresent(url);
+        if (entry == null) return null;
+        entry.count.incrementAndGet();
+        return entry;
+    }
+
+    public void rejected(URI url, String message) {
+        this.record(url, null, message);
+    }
+
+    public void failed(URI url, JsonLdError error) {
+        this.record(url, error, error.getMessage());
+    }
+
+    private void record(URI url, JsonLdError error, String message) {
+
+        long now = this.ticker.read();
+
+        // re-inserting the entry restarts its time to live
+        Entry entry = this.entries.asMap().compute(url, (x, oldEntry) -> oldEntry != null ? oldEntry : new Entry());
+        entry.error = error;
+        long count = entry.count.incrementAndGet();
+
+        // log the first result for a URI, and afterwards at most once per interval with the number of suppressed results
+        if (message == null || ! log.isLoggable(Level.WARNING)) return;
+        synchronized (entry) {
+            if (entry.loggedCount != 0 && now - entry.loggedAt < this.logInterval) return;
+            long suppressed = count - entry.loggedCount - 1;
+            entry.loggedAt = now;
+            entry.loggedCount = count;
+            log.warning(suppressed > 0 ? message + " (" + suppressed + " more since last warning)" : message);
+        }
+    }
+
+    public void invalidate(URI url) {
+        this.entries.invalidate(url);
+    }
+
+    public void invalidateAll() {
+        this.entries.invalidateAll();
+    }
+
+    /*
+     * Statistics
+     */
+
+    public long getCount(URI url) {
+        Entry entry = this.entries.getIfPresent(url);
+        return entry == null ? 0 : entry.getCount();
+    }
+
+    public long getSize() {
+        return this.entries.estimatedSize();
+    }
+}
@@ -0,0 +1,196 @@
+package foundation.identity.jsonld;
+
+import com.apicatalog.jsonld.JsonLdError;
+import com.apicatalog.jsonld.JsonLdErrorCode;
+import com.apicatalog.jsonld.http.DefaultHttpClient;
+import com.apicatalog.jsonld.http.HttpClient;
+import com.apicatalog.jsonld.http.HttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class PooledHttpClient implements HttpClient {
+
+    public static final int DEFAULT_MAX_CONCURRENCY_PER_HOST = 8;
+    public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    public static final Duration DEFAULT_ACQUIRE_TIMEOUT = Duration.ofSeconds(30);
+
+    private final java.net.http.HttpClient httpClient;
+    private final HttpClient delegate;
+    private final int maxConcurrencyPerHost;
+    private final Duration acquireTimeout;
+    private final Map<String, HostPermits> hostPermits;
+
+    // the number of callers that hold or wait for a permit is only changed inside compute(), so that idle hosts can be removed safely
+    private static final class HostPermits {
+
+        private final Semaphore semaphore;
+        private int users = 0;
+
+        private HostPermits(int maxConcurrency) {
+            this.semaphore = new Semaphore(maxConcurrency, true);
+        }
+    }
+
+    private static final class SharedInstanceHolder {
+        private static final PooledHttpClient INSTANCE = new PooledHttpClient(newHttpClient(), DEFAULT_MAX_CONCURRENCY_PER_HOST, DEFAULT_ACQUIRE_TIMEOUT);
+    }
+
+    public PooledHttpClient(java.net.http.HttpClient httpClient, int maxConcurrencyPerHost, Duration acquireTimeout) {
+        this(httpClient, new DefaultHttpClient(httpClient), maxConcurrencyPerHost, acquireTimeout, new ConcurrentHashMap<>());
+    }
+
+    private PooledHttpClient(java.net.http.HttpClient httpClient, HttpClient delegate, int maxConcurrencyPerHost, Duration acquireTimeout, Map<String, HostPermits> hostPermits) {
+        if (maxConcurrencyPerHost < 1) throw new IllegalArgumentException("Invalid maximum concurrency per host: " + maxConcurrencyPerHost);
+        this.httpClient = httpClient;
+        this.delegate = delegate;
+        this.maxConcurrencyPerHost = maxConcurrencyPerHost;
+        this.acquireTimeout = acquireTimeout;
+        this.hostPermits = hostPermits;
+    }
+
+    public static PooledHttpClient sharedInstance() {
+        return SharedInstanceHolder.INSTANCE;
+    }
+
+    public static java.net.http.HttpClient newHttpClient() {
+        // redirects are followed by the titanium loader, which needs to see the Location header
+        return java.net.http.HttpClient.newBuilder()
+                .version(java.net.http.HttpClient.Version.HTTP_2)
+                .followRedirects(java.net.http.HttpClient.Redirect.NEVER)
+                .connectTimeout(DEFAULT_CONNECT_TIMEOUT)
+                .build();
+    }
+
+    /*
+     * HttpClient
+     */
+
+    @Override
+    public HttpResponse send(URI targetUri, String requestProfile) throws JsonLdError {
+
+        Runnable release = this.acquire(targetUri);
+        try {
+            return new PermitHttpResponse(this.delegate.send(targetUri, requestProfile), release);
+        } catch (JsonLdError | RuntimeException ex) {
+            release.run();
+            throw ex;
+        }
+    }
+
+    // waits for a permit of the target's host, and returns what gives it back
+    Runnable acquire(URI targetUri) throws JsonLdError {
+
+        String hostKey = hostKey(targetUri);
+        HostPermits hostPermits = this.hostPermits.compute(hostKey, (x, current) -> {
+            if (current == null) current = new HostPermits(this.maxConcurrencyPerHost);
+            current.users++;
+            return current;
+        });
+        try {
+            if (! hostPermits.semaphore.tryAcquire(this.acquireTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                this.leave(hostKey, hostPermits);
+                throw new JsonLdError(JsonLdErrorCode.LOADING_DOCUMENT_FAILED, "Too many concurrent requests to " + hostKey);
+            }
+        } catch (InterruptedException ex) {
+            this.leave(hostKey, hostPermits);
+            Thread.currentThread().interrupt();
+            throw new JsonLdError(JsonLdErrorCode.LOADING_DOCUMENT_FAILED, ex);
+        }
+
+        return () -> {
+            hostPermits.semaphore.release();
+            this.leave(hostKey, hostPermits);
+        };
+    }
+
+    // returns a new client with its own timeout that shares the connection pool and the per-host limits;
+    // titanium's HttpLoader.timeout() discards the result, so pass the new client to a new HttpLoader instead
+    @Override
+    public HttpClient timeout(Duration timeout) {
+        return new PooledHttpClient(this.httpClient, new DefaultHttpClient(this.httpClient).timeout(timeout), this.maxConcurrencyPerHost, this.acquireTimeout, this.hostPermits);
+    }
+
+    private void leave(String hostKey, HostPermits hostPermits) {
+        this.hostPermits.computeIfPresent(hostKey, (x, current) -> current != hostPermits || --current.users > 0 ? current : null);
+    }
+
+    private static String hostKey(URI uri) {
+        return uri.getScheme() + "://" + uri.getRawAuthority();
+    }
+
+    /*
+     * Response that holds a per-host permit until it is closed
+     */
+
+    private static final class PermitHttpResponse implements HttpResponse {
+
+        private final HttpResponse response;
+        private final Runnable release;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private PermitHttpResponse(HttpResponse response, Runnable release) {
+            this.response = response;
+            this.release = release;
+        }
+
+        @Override
+        public int statusCode() {
+            return this.response.statusCode();
+        }
+
+        @Override
+        public InputStream body() {
+            return this.response.body();
+        }
+
+        @Override
+        public Collection<String> links() {
+            return this.response.links();
+        }
+
+        @Override
+        public Optional<String> contentType() {
+            return this.response.contentType();
+        }
+
+        @Override
+        public Optional<String> location() {
+            return this.response.location();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                this.response.close();
+            } finally {
+                if (this.released.compareAndSet(false, true)) this.release.run();
+            }
+        }
+    }
+
+    /*
+     * Getters
+     */
+
+    public java.net.http.HttpClient getHttpClient() {
+        return this.httpClient;
+    }
+
+    public int getMaxConcurrencyPerHost() {
+        return this.maxConcurrencyPerHost;
+    }
+
+    public int getHostCount() {
+        return this.hostPermits.size();
+    }
+}
@@ -0,0 +1,279 @@
+package foundation.identity.jsonld;
+
+import com.apicatalog.jsonld.JsonLdError;
+import com.apicatalog.jsonld.JsonLdErrorCode;
+import com.apicatalog.jsonld.document.Document;
+import com.apicatalog.jsonld.document.JsonDocument;
+import com.apicatalog.jsonld.http.link.Link;
+import com.apicatalog.jsonld.http.media.MediaType;
+import com.apicatalog.jsonld.loader.DocumentLoader;
+import com.apicatalog.jsonld.loader.DocumentLoaderOptions;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+public class RemoteDocumentCache implements DocumentLoader {
+
+    public static final long DEFAULT_MAXIMUM_SIZE = 1000;
+    public static final Duration DEFAULT_REFRESH_AFTER_WRITE = Duration.ofMinutes(5);
+    public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofHours(1);
+    public static final Duration DEFAULT_MAX_STALE = Duration.ofDays(1);
+    public static final Duration DEFAULT_NEGATIVE_TIME_TO_LIVE = Duration.ofMinutes(1);
+    public static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    public static final int MAX_REDIRECTIONS = 10;
+
+    private static final String ACCEPT = "application/ld+json, application/json;q=0.9, */*;q=0.1";
+    private static final String LINK_REL_ALTERNATE = "alternate";
+    private static final String LINK_REL_CONTEXT = "http://www.w3.org/ns/json-ld#context";
+
+    private final HttpClient httpClient;
+    private final PooledHttpClient pooledHttpClient;
+    private final Duration defaultTimeToLive;
+    private final Duration maxStale;
+    private final Duration negativeTimeToLive;
+    private final Duration requestTimeout;
+    private final Ticker ticker;
+    private final LoadingCache<Key, Entry> cache;
+
+    // the request profile changes the Accept header, so documents requested with different profiles are cached apart
+    private record Key(URI url, String requestProfile) {
+    }
+
+    private record Entry(Document document, JsonLdError error, String etag, String lastModified, long freshUntil, long expiresAt, boolean noStore) {
+    }
+
+    public RemoteDocumentCache(HttpClient httpClient, long maximumSize, Duration refreshAfterWrite, Duration defaultTimeToLive, Duration maxStale, Duration negativeTimeToLive, Duration requestTimeout) {
+        this(httpClient, maximumSize, refreshAfterWrite, defaultTimeToLive, maxStale, negativeTimeToLive, requestTimeout, ForkJoinPool.commonPool(), Ticker.systemTicker());
+    }
+
+    public RemoteDocumentCache(HttpClient httpClient, long maximumSize, Duration refreshAfterWrite, Duration defaultTimeToLive, Duration maxStale, Duration negativeTimeToLive) {
+        this(httpClient, maximumSize, refreshAfterWrite, defaultTimeToLive, maxStale, negativeTimeToLive, DEFAULT_REQUEST_TIMEOUT);
+    }
+
+    public RemoteDocumentCache(HttpClient httpClient) {
+        this(httpClient, DEFAULT_MAXIMUM_SIZE, DEFAULT_REFRESH_AFTER_WRITE, DEFAULT_TIME_TO_LIVE, DEFAULT_MAX_STALE, DEFAULT_NEGATIVE_TIME_TO_LIVE);
+    }
+
+    // requests go through the client's connection pool and wait for its per-host permits
+    public RemoteDocumentCache(PooledHttpClient pooledHttpClient) {
+        this(pooledHttpClient.getHttpClient(), pooledHttpClient, DEFAULT_MAXIMUM_SIZE, DEFAULT_REFRESH_AFTER_WRITE, DEFAULT_TIME_TO_LIVE, DEFAULT_MAX_STALE, DEFAULT_NEGATIVE_TIME_TO_LIVE, DEFAULT_REQUEST_TIMEOUT, ForkJoinPool.commonPool(), Ticker.systemTicker());
+    }
+
+    // entries are revalidated as soon as their freshness lifetime (max-age) is over, see loadDocument(); refreshAfterWrite
+    // only adds periodic checks for entries that are read less often, and a reload never goes to the network while an entry is fresh
+    RemoteDocumentCache(HttpClient httpClient, long maximumSize, Duration refreshAfterWrite, Duration defaultTimeToLive, Duration maxStale, Duration negativeTimeToLive, Duration requestTimeout, Executor executor, Ticker ticker) {
+        this(httpClient, null, maximumSize, refreshAfterWrite, defaultTimeToLive, maxStale, negativeTimeToLive, requestTimeout, executor, ticker);
+    }
+
+    RemoteDocumentCache(HttpClient httpClient, PooledHttpClient pooledHttpClient, long maximumSize, Duration refreshAfterWrite, Duration defaultTimeToLive, Duration maxStale, Duration negativeTimeToLive, Duration requestTimeout, Executor executor, Ticker ticker) {
+        this.httpClient = httpClient;
+        this.pooledHttpClient = pooledHttpClient;
+        this.defaultTimeToLive = defaultTimeToLive;
+        this.maxStale = maxStale;
+        this.negativeTimeToLive = negativeTimeToLive;
+        this.requestTimeout = requestTimeout;
+        this.ticker = ticker;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .refreshAfterWrite(refreshAfterWrite)
+                .expireAfter(Expiry.writing((Key key, Entry entry) -> this.expireAfter(entry)))
+                .executor(executor)
+                .ticker(ticker)
+                .build(new CacheLoader<>() {
+
+                    @Override
+                    public Entry load(Key key) {
+                        return RemoteDocumentCache.this.fetch(key, null);
+                    }
+
+                    @Override
+                    public Entry reload(Key key, Entry oldEntry) {
+                        if (oldEntry.error() == null && RemoteDocumentCache.this.ticker.read() < oldEntry.freshUntil()) return oldEntry;
+                        return RemoteDocumentCache.this.fetch(key, oldEntry);
+                    }
+                });
+    }
+
+    /*
+     * Loading documents
+     */
+
+    public Document loadDocument(URI url) throws JsonLdError {
+        return this.loadDocument(url, null);
+    }
+
+    @Override
+    public Document loadDocument(URI url, DocumentLoaderOptions options) throws JsonLdError {
+        Key key = new Key(url, requestProfile(options));
+        Entry entry = this.cache.get(key);
+        if (entry.error() != null) throw new JsonLdError(entry.error().getCode(), entry.error().getMessage());
+        // serve the stale document while it is revalidated
+        if (this.ticker.read() >= entry.freshUntil()) this.cache.refresh(key);
+        return entry.document();
+    }
+
+    public boolean isCached(URI url, DocumentLoaderOptions options) {
+        Entry entry = this.cache.getIfPresent(new Key(url, requestProfile(options)));
+        return entry != null && entry.error() == null;
+    }
+
+    public void invalidate(URI url) {
+        this.cache.asMap().keySet().removeIf(key -> key.url().equals(url));
+    }
+
+    public void invalidateAll() {
+        this.cache.invalidateAll();
+    }
+
+    private Entry fetch(Key key, Entry oldEntry) {
+
+        URI uri = key.url();
+        String accept = key.requestProfile() == null ? ACCEPT : MediaType.JSON_LD + ";profile=\"" + key.requestProfile() + "\", " + ACCEPT;
+
+        // stale entries are revalidated with the validators of the previous response
+        boolean revalidate = oldEntry != null && oldEntry.error() == null && (oldEntry.etag() != null || oldEntry.lastModified() != null);
+
+        try {
+            URI target = uri;
+            for (int redirections = 0; ; redirections++) {
+
+                if (redirections > MAX_REDIRECTIONS) throw new JsonLdError(JsonLdErrorCode.LOADING_DOCUMENT_FAILED, "Too many redirections for " + uri);
+
+                HttpRequest.Builder request = HttpRequest.newBuilder(target).GET().timeout(this.requestTimeout).header("Accept", accept);
+                if (revalidate && oldEntry.etag() != null) request.header("If-None-Match", oldEntry.etag());
+                if (revalidate && oldEntry.lastModified() != null) request.header("If-Modified-Since", oldEntry.lastModified());
+
+                Runnable release = this.pooledHttpClient == null ? null : this.pooledHttpClient.acquire(target);
+                try {
+                    HttpResponse<InputStream> response = this.httpClient.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+                    try (InputStream body = response.body()) {
+                        int statusCode = response.statusCode();
+                        if (revalidate && statusCode == 304) {
+                            return this.entry(oldEntry.document(), response, oldEntry);
+                        }
+                        if (statusCode == 301 || statusCode == 302 || statusCode == 303 || statusCode == 307 || statusCode == 308) {
+                            String location = response.headers().firstValue("Location").orElse(null);
+                            if (location == null) throw new JsonLdError(JsonLdErrorCode.LOADING_DOCUMENT_FAILED, "Redirection without Location header for " + target);
+                            target = target.resolve(location);
+                            continue;
+                        }
+                        if (statusCode != 200) {
+                            throw new JsonLdError(JsonLdErrorCode.LOADING_DOCUMENT_FAILED, "Unexpected response code " + statusCode + " for " + target);
+                        }
+                        MediaType mediaType = response.headers().firstValue("Content-Type").map(MediaType::of).orElse(null);
+                        Collection<Link> links = response.headers().allValues("Link").stream().flatMap(link -> Link.of(link, response.uri()).stream()).toList();
+
+                        // a non-JSON response can point to its JSON-LD representation, see JSON-LD 1.1 API, LoadDocumentCallback
+                        if (mediaType != null && ! JsonDocument.accepts(mediaType)) {
+                            URI alternate = findLink(links, LINK_REL_ALTERNATE, MediaType.JSON_LD);
+                            if (alternate != null) {
+                                target = alternate;
+                                continue;
+                            }
+                            mediaType = MediaType.JSON;
+                        }
+                        if (mediaType == null) mediaType = MediaType.JSON;
+
+                        JsonDocument document = JsonDocument.of(mediaType, body);
+                        document.setDocumentUrl(target);
+                        if (! MediaType.JSON_LD.match(mediaType)) document.setContextUrl(findLink(links, LINK_REL_CONTEXT, null));
+                        return this.entry(document, response, null);
+                    }
+                } finally {
+                    if (release != null) release.run();
+                }
+            }
+        } catch (JsonLdError ex) {
+            return this.failure(uri, oldEntry, ex);
+        } catch (IOException ex) {
+            return this.failure(uri, oldEntry, new JsonLdError(JsonLdErrorCode.LOADING_DOCUMENT_FAILED, ex));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return this.failure(uri, oldEntry, new JsonLdError(JsonLdErrorCode.LOADING_DOCUMENT_FAILED, ex));
+        }
+    }
+
+    // several profiles are sent as one space-separated profile parameter, see JSON-LD 1.1, IANA considerations
+    private static String requestProfile(DocumentLoaderOptions options) {
+        if (options == null || options.getRequestProfile() == null || options.getRequestProfile().isEmpty()) return null;
+        return String.join(" ", options.getRequestProfile());
+    }
+
+    private static URI findLink(Collection<Link> links, String relation, MediaType mediaType) {
+        for (Link link : links) {
+            if (! link.relations().contains(relation)) continue;
+            if (mediaType != null && link.type().map(type -> ! mediaType.match(type)).orElse(true)) continue;
+            return link.target();
+        }
+        return null;
+    }
+
+    private Entry entry(Document document, HttpResponse<?> response, Entry oldEntry) {
+
+        String etag = response.headers().firstValue("ETag").orElse(oldEntry == null ? null : oldEntry.etag());
+        String lastModified = response.headers().firstValue("Last-Modified").orElse(oldEntry == null ? null : oldEntry.lastModified());
+
+        Duration timeToLive = this.defaultTimeToLive;
+        boolean noStore = false;
+        for (String cacheControl : response.headers().allValues("Cache-Control")) {
+            for (String directive : cacheControl.toLowerCase(Locale.ROOT).split(",")) {
+                directive = directive.trim();
+                if (directive.equals("no-store")) {
+                    noStore = true;
+                } else if (directive.equals("no-cache")) {
+                    timeToLive = Duration.ZERO;
+                } else if (directive.startsWith("max-age=")) {
+                    try {
+                        timeToLive = Duration.ofSeconds(Math.max(0, Long.parseLong(directive.substring("max-age=".length()).replace("\"", ""))));
+                    } catch (NumberFormatException ignored) {
+                    }
+                }
+            }
+        }
+
+        long freshUntil = this.ticker.read() + timeToLive.toNanos();
+        return new Entry(document, null, etag, lastModified, freshUntil, freshUntil + this.maxStale.toNanos(), noStore);
+    }
+
+    private Entry failure(URI uri, Entry oldEntry, JsonLdError error) {
+        long now = this.ticker.read();
+        // serve the stale document if revalidation fails, but only try again after the negative time to live, and not beyond max-stale
+        if (oldEntry != null && oldEntry.error() == null) return new Entry(oldEntry.document(), null, oldEntry.etag(), oldEntry.lastModified(), now + this.negativeTimeToLive.toNanos(), oldEntry.expiresAt(), oldEntry.noStore());
+        return new Entry(null, error, null, null, now + this.negativeTimeToLive.toNanos(), now + this.negativeTimeToLive.toNanos(), false);
+    }
+
+    private Duration expireAfter(Entry entry) {
+        if (entry.noStore()) return Duration.ZERO;
+        return Duration.ofNanos(Math.max(0, entry.expiresAt() - this.ticker.read()));
+    }
+
+    /*
+     * Getters
+     */
+
+    public HttpClient getHttpClient() {
+        return this.httpClient;
+    }
+
+    public Duration getRequestTimeout() {
+        return this.requestTimeout;
+    }
+
+    public long getSize() {
+        return this.cache.estimatedSize();
+    }
+}
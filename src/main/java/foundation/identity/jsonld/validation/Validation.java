@@ -1,11 +1,8 @@
 package foundation.identity.jsonld.validation;
 
-import com.apicatalog.jsonld.JsonLdError;
-import com.apicatalog.jsonld.JsonLdOptions;
-import com.apicatalog.jsonld.document.JsonDocument;
-import com.apicatalog.jsonld.http.media.MediaType;
-import com.apicatalog.jsonld.processor.ExpansionProcessor;
+import foundation.identity.jsonld.JsonLDException;
 import foundation.identity.jsonld.JsonLDObject;
+import foundation.identity.jsonld.JsonLDTraversal;
 import jakarta.json.*;
 
 import java.util.Map;
@@ -31,25 +28,22 @@ public class Validation {
         }
     }
 
-    private static void findUndefinedTerms(JsonArray jsonArray) {
-
-        for (JsonValue entry : jsonArray) {
-
-            if (entry instanceof JsonString) checkUndefinedTerm((JsonString) entry);
-            if (entry instanceof JsonObject) findUndefinedTerms((JsonObject) entry);
-        }
-    }
-
     private static void findUndefinedTerms(JsonObject jsonObject) {
 
-        for (Map.Entry<String, JsonValue> entry : jsonObject.entrySet()) {
+        JsonLDTraversal.traverse(jsonObject, new JsonLDTraversal.Visitor() {
 
-            checkUndefinedTerm(entry.getKey());
+            @Override
+            public JsonLDTraversal.Result visitMap(JsonLDTraversal.Path path, Map<String, ?> map) {
+                for (String key : map.keySet()) checkUndefinedTerm(key);
+                return JsonLDTraversal.Result.CONTINUE;
+            }
 
-            if (entry.getValue() instanceof JsonString) checkUndefinedTerm((JsonString) entry.getValue());
-            if (entry.getValue() instanceof JsonArray) findUndefinedTerms((JsonArray) entry.getValue());
-            if (entry.getValue() instanceof JsonObject) findUndefinedTerms((JsonObject) entry.getValue());
-        }
+            @Override
+            public JsonLDTraversal.Result visitScalar(JsonLDTraversal.Path path, Object value) {
+                if (value instanceof JsonString) checkUndefinedTerm((JsonString) value);
+                return JsonLDTraversal.Result.CONTINUE;
+            }
+        });
     }
 
     private static void validateJsonLd(JsonLDObject jsonLdObject) {
@@ -58,17 +52,11 @@ public class Validation {
 
             JsonObject expandContext = Json.createObjectBuilder().add("@vocab", Json.createValue(UNDEFINED_TERM_URI)).build();
 
-            JsonDocument jsonDocument = JsonDocument.of(MediaType.JSON_LD, jsonLdObject.toJsonObject());
-
-            JsonLdOptions jsonLdOptions = new JsonLdOptions();
-            jsonLdOptions.setDocumentLoader(jsonLdObject.getDocumentLoader());
-            jsonLdOptions.setExpandContext(expandContext);
-
-            JsonArray jsonArray = ExpansionProcessor.expand(jsonDocument, jsonLdOptions, false);
+            JsonArray jsonArray = jsonLdObject.toExpanded(expandContext);
             JsonObject jsonObject = jsonArray.getJsonObject(0);
 
             findUndefinedTerms(jsonObject);
-        } catch (JsonLdError ex) {
+        } catch (JsonLDException ex) {
 
             throw new RuntimeException(ex.getMessage(), ex);
         }
@@ -3,11 +3,26 @@ package foundation.identity.jsonld;
 import org.junit.jupiter.api.Test;
 
 import java.net.URI;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 public class BasicTest {
 
+	public static class MyItem extends JsonLDObject {
+
+		public static final String DEFAULT_JSONLD_PREDICATE = "item";
+
+		private MyItem(Map<String, Object> jsonObject) {
+			super(jsonObject);
+		}
+
+		public static MyItem fromMap(Map<String, Object> jsonObject) {
+			return new MyItem(jsonObject);
+		}
+	}
+
 	@Test
 	public void testBasic() throws Exception {
 
@@ -22,4 +37,19 @@ public class BasicTest {
 		assertEquals(URI.create("did:ex:123"), jsonLDObject.getId());
 		assertEquals("MyObject", jsonLDObject.getType());
 	}
+
+	@Test
+	public void testGetFromJsonLDObjectAsList() throws Exception {
+
+		JsonLDObject jsonLDObject = JsonLDObject.builder().build();
+		JsonLDObject.builder().type("First").build().addToJsonLDObjectAsJsonArray(jsonLDObject, MyItem.DEFAULT_JSONLD_PREDICATE);
+		JsonLDObject.builder().type("Second").build().addToJsonLDObjectAsJsonArray(jsonLDObject, MyItem.DEFAULT_JSONLD_PREDICATE);
+
+		List<MyItem> items = JsonLDObject.getFromJsonLDObjectAsList(MyItem.class, jsonLDObject);
+
+		assertEquals(2, items.size());
+		assertEquals(MyItem.class, items.get(0).getClass());
+		assertEquals("First", items.get(0).getType());
+		assertEquals("Second", items.get(1).getType());
+	}
 }
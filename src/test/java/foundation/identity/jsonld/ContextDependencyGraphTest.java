@@ -0,0 +1,80 @@
+package foundation.identity.jsonld;
+
+import com.apicatalog.jsonld.document.JsonDocument;
+import com.apicatalog.jsonld.loader.DocumentLoaderOptions;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContextDependencyGraphTest {
+
+	@Test
+	public void testContextDependencies() throws Exception {
+
+		Map<String, String> contexts = Map.of(
+				"https://example.com/a", "{\"@context\":{\"@import\":\"b\",\"name\":\"https://schema.org/name\"}}",
+				"https://example.com/b", "{\"@context\":[\"https://example.com/c\",{\"knows\":{\"@id\":\"https://schema.org/knows\",\"@context\":\"https://example.com/d\"}}]}",
+				"https://example.com/c", "{\"@context\":{}}",
+				"https://example.com/d", "{\"@context\":{}}");
+
+		List<URI> loaded = new CopyOnWriteArrayList<>();
+		ConfigurableDocumentLoader documentLoader = new ConfigurableDocumentLoader();
+		documentLoader.setEnableHttps(true);
+		documentLoader.setHttpLoader((url, options) -> {
+			loaded.add(url);
+			JsonDocument document = JsonDocument.of(new StringReader(contexts.get(url.toString())));
+			document.setDocumentUrl(url);
+			return document;
+		});
+		documentLoader.setPreloadExecutor(Runnable::run);
+		assertNull(documentLoader.getContextDependencyGraph());
+		documentLoader.enableContextDependencyGraph();
+
+		Set<URI> closure = documentLoader.getContextClosure(List.of(URI.create("https://example.com/a")));
+		assertEquals(List.of(URI.create("https://example.com/a"), URI.create("https://example.com/b"), URI.create("https://example.com/c"), URI.create("https://example.com/d")), List.copyOf(closure));
+		assertEquals(Set.of(URI.create("https://example.com/c"), URI.create("https://example.com/d")), documentLoader.getContextDependencyGraph().getDependencies(URI.create("https://example.com/b")));
+
+		// preloading is skipped without a cache to keep the preloaded documents
+		loaded.clear();
+		documentLoader.setContextDependencyGraph(null);
+		documentLoader.setPreloadDependencies(true);
+		assertNotNull(documentLoader.getContextDependencyGraph());
+		documentLoader.loadDocument(URI.create("https://example.com/a"), new DocumentLoaderOptions());
+		assertEquals(1, loaded.size());
+
+		loaded.clear();
+		documentLoader.setContextDependencyGraph(new ContextDependencyGraph());
+		documentLoader.setRemoteCache(Caffeine.newBuilder().build());
+		documentLoader.loadDocument(URI.create("https://example.com/a"), new DocumentLoaderOptions());
+		assertEquals(4, loaded.size());
+		assertEquals(4, documentLoader.getRemoteCache().estimatedSize());
+		documentLoader.setRemoteCache(null);
+
+		documentLoader.setContextDependencyGraph(new ContextDependencyGraph());
+		documentLoader.setPreloadExecutor(runnable -> { });
+		documentLoader.setPreloadTimeout(Duration.ofMillis(10));
+		assertEquals(Set.of(URI.create("https://example.com/a")), documentLoader.getContextClosure(List.of(URI.create("https://example.com/a"))));
+
+		documentLoader.setPreloadExecutor(null);
+		documentLoader.setPreloadTimeout(ConfigurableDocumentLoader.DEFAULT_PRELOAD_TIMEOUT);
+		assertEquals(4, documentLoader.getContextClosure(List.of(URI.create("https://example.com/a"))).size());
+	}
+
+	@Test
+	public void testMaximumSize() throws Exception {
+
+		ContextDependencyGraph contextDependencyGraph = new ContextDependencyGraph(2, Runnable::run);
+		for (int i = 0; i < 10; i++) contextDependencyGraph.putAll(Map.of(URI.create("https://example.com/context" + i), List.of()));
+
+		assertEquals(2, contextDependencyGraph.toMap().size());
+	}
+}
@@ -0,0 +1,29 @@
+package foundation.identity.jsonld;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContextSnapshotTest {
+
+	@Test
+	public void testContextSnapshot() throws Exception {
+
+		List<URI> contextList = List.of(URI.create("https://www.w3.org/2018/credentials/v1"), URI.create("https://w3id.org/security/v2"));
+		byte[] bytes = ContextSnapshot.create(NormalizationAlgorithmTest.documentLoader, List.of(contextList)).write();
+
+		ContextSnapshot contextSnapshot = ContextSnapshot.read(bytes);
+		assertEquals(List.of(contextList), contextSnapshot.getContextLists());
+		assertTrue(contextSnapshot.getContexts().contains(URI.create("https://w3id.org/security/v1")));
+
+		ConfigurableDocumentLoader snapshotDocumentLoader = new ConfigurableDocumentLoader();
+		contextSnapshot.install(snapshotDocumentLoader);
+
+		JsonLDObject jsonLdObject = JsonLDObject.fromJson(TestUtil.read(NormalizationAlgorithmTest.class.getResourceAsStream("input.vc.jsonld")));
+		jsonLdObject.setDocumentLoader(snapshotDocumentLoader);
+		assertEquals(TestUtil.read(NormalizationAlgorithmTest.class.getResourceAsStream("input.vc.normalized")), jsonLdObject.normalize());
+	}
+}
@@ -0,0 +1,50 @@
+package foundation.identity.jsonld;
+
+import com.apicatalog.jsonld.document.JsonDocument;
+import com.apicatalog.jsonld.loader.DocumentLoaderOptions;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DocumentCacheStatisticsTest {
+
+	@Test
+	public void testWeightedRemoteCache() throws Exception {
+
+		AtomicInteger loads = new AtomicInteger();
+		ConfigurableDocumentLoader documentLoader = new ConfigurableDocumentLoader();
+		documentLoader.setEnableHttps(true);
+		documentLoader.setHttpLoader((url, options) -> {
+			loads.incrementAndGet();
+			return JsonDocument.of(new StringReader("{\"@context\":{\"name\":\"https://schema.org/name\",\"knows\":{\"@id\":\"https://schema.org/knows\",\"@type\":\"@id\"}}}"));
+		});
+		documentLoader.enableWeightedRemoteCache();
+
+		URI context = URI.create("https://example.com/context");
+		assertNotNull(documentLoader.loadDocument(context, new DocumentLoaderOptions()));
+		assertNotNull(documentLoader.loadDocument(context, new DocumentLoaderOptions()));
+		assertNotNull(documentLoader.loadDocument(context, new DocumentLoaderOptions()));
+		assertEquals(1, loads.get());
+
+		DocumentCacheStatistics.Entry entry = documentLoader.getDocumentCacheStatistics().getEntry(context);
+		assertEquals(1, entry.getLoads());
+		assertEquals(2, entry.getHits());
+		assertEquals(6, entry.getValueCount());
+		assertTrue(entry.getRetainedSize() > 0);
+		documentLoader.getRemoteCache().cleanUp();
+		assertEquals(entry.getRetainedSize(), documentLoader.getRemoteCache().policy().eviction().orElseThrow().weightedSize().orElseThrow());
+	}
+
+	@Test
+	public void testMaximumEntries() throws Exception {
+
+		DocumentCacheStatistics documentCacheStatistics = new DocumentCacheStatistics(2, Runnable::run);
+		for (int i = 0; i < 10; i++) documentCacheStatistics.recordHit(URI.create("https://example.com/context" + i));
+
+		assertEquals(2, documentCacheStatistics.getEntries().size());
+	}
+}
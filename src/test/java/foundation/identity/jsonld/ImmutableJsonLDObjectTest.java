@@ -0,0 +1,50 @@
+package foundation.identity.jsonld;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ImmutableJsonLDObjectTest {
+
+	@Test
+	public void testImmutable() throws Exception {
+
+		ImmutableJsonLDObject jsonLDObject = ImmutableJsonLDObject.fromJson("{\"id\":\"did:ex:123\",\"type\":[\"A\",\"B\"],\"credentialSubject\":{\"name\":\"x\"}}");
+
+		assertThrows(UnsupportedOperationException.class, () -> jsonLDObject.getJsonObject().put("x", "y"));
+		assertThrows(UnsupportedOperationException.class, () -> JsonLDUtils.jsonLdRemove(jsonLDObject, "id"));
+		assertThrows(UnsupportedOperationException.class, () -> ((Map<String, Object>) jsonLDObject.getJsonObject().get("credentialSubject")).put("x", "y"));
+		assertThrows(UnsupportedOperationException.class, () -> JsonLDUtils.jsonLdAdd(jsonLDObject, "type", "C"));
+		assertThrows(UnsupportedOperationException.class, () -> jsonLDObject.setDocumentLoader(null));
+		assertThrows(UnsupportedOperationException.class, () -> jsonLDObject.setDigestEquality(true));
+		assertThrows(UnsupportedOperationException.class, () -> jsonLDObject.setIncrementalNormalization(true));
+		assertEquals(List.of("A", "B"), jsonLDObject.getTypes());
+		assertEquals("{\"id\":\"did:ex:123\",\"type\":[\"A\",\"B\"],\"credentialSubject\":{\"name\":\"x\"}}", jsonLDObject.toJson());
+		assertEquals(jsonLDObject.toJson(), jsonLDObject.toJson());
+
+		ConfigurableDocumentLoader documentLoader = new ConfigurableDocumentLoader();
+		ImmutableJsonLDObject jsonLDObject2 = jsonLDObject.withDocumentLoader(documentLoader);
+		assertSame(documentLoader, jsonLDObject2.getDocumentLoader());
+		assertSame(jsonLDObject.getJsonObject(), jsonLDObject2.getJsonObject());
+	}
+
+	@Test
+	public void testWith() throws Exception {
+
+		ImmutableJsonLDObject jsonLDObject = ImmutableJsonLDObject.fromJson("{\"id\":\"did:ex:123\",\"type\":[\"A\",\"B\"],\"credentialSubject\":{\"name\":\"x\"}}");
+		ImmutableJsonLDObject jsonLDObject2 = jsonLDObject.withAdded("type", "C").with("issuer", "did:ex:456");
+
+		assertEquals(List.of("A", "B"), jsonLDObject.getTypes());
+		assertEquals(List.of("A", "B", "C"), jsonLDObject2.getTypes());
+		assertFalse(jsonLDObject.getJsonObject().containsKey("issuer"));
+		assertSame(jsonLDObject.getJsonObject().get("credentialSubject"), jsonLDObject2.getJsonObject().get("credentialSubject"));
+
+		assertNotEquals(jsonLDObject, jsonLDObject2);
+		assertEquals(jsonLDObject, jsonLDObject2.without("issuer").with("type", List.of("A", "B")));
+		assertEquals(jsonLDObject.hashCode(), jsonLDObject2.without("issuer").with("type", List.of("A", "B")).hashCode());
+		assertEquals(jsonLDObject.toJson(), jsonLDObject.toMutableJsonLDObject().toJson());
+	}
+}
@@ -0,0 +1,71 @@
+package foundation.identity.jsonld;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonLDBinaryCodecTest {
+
+	@Test
+	public void testRoundTrip() throws Exception {
+
+		JsonLDObject jsonLdObject = JsonLDObject.fromJson(new InputStreamReader(Objects.requireNonNull(JsonLDBinaryCodecTest.class.getResourceAsStream("input.vp.jsonld"))));
+
+		ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+		jsonLdObject.toBinary(byteArrayOutputStream);
+		byte[] binary = byteArrayOutputStream.toByteArray();
+		JsonLDObject jsonLdObject2 = JsonLDObject.fromBinary(new ByteArrayInputStream(binary));
+
+		assertEquals(jsonLdObject, jsonLdObject2);
+		assertEquals(jsonLdObject.toJson(), jsonLdObject2.toJson());
+		assertTrue(binary.length < jsonLdObject.toJson().getBytes(StandardCharsets.UTF_8).length);
+	}
+
+	@Test
+	public void testRoundTripTypes() throws Exception {
+
+		Map<String, Object> jsonObject = new LinkedHashMap<>();
+		jsonObject.put("null", null);
+		jsonObject.put("boolean", true);
+		jsonObject.put("int", -42);
+		jsonObject.put("long", Long.MIN_VALUE);
+		jsonObject.put("double", 1.5);
+		jsonObject.put("bigInteger", new BigInteger("123456789012345678901234567890"));
+		jsonObject.put("bigDecimal", new BigDecimal("-1.000000000000000000001"));
+		jsonObject.put("list", new ArrayList<>(Arrays.asList("a", "a", "ä€", new LinkedHashMap<>())));
+
+		Map<String, Object> jsonObject2 = JsonLDBinaryCodec.read(JsonLDBinaryCodec.write(jsonObject));
+
+		assertEquals(jsonObject, jsonObject2);
+		assertEquals(new ArrayList<>(jsonObject.keySet()), new ArrayList<>(jsonObject2.keySet()));
+	}
+
+	@Test
+	public void testLimits() throws Exception {
+
+		ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+		byteArrayOutputStream.write(new byte[] { 'J', 'L', 'D', 'B', 1, 0x0c, 1, 0x09, 1, 'n' });
+		for (int i = 0; i < 100000; i++) byteArrayOutputStream.write(new byte[] { 0x0d, 1 });
+		byteArrayOutputStream.write(0x00);
+
+		assertThrows(IOException.class, () -> JsonLDBinaryCodec.read(byteArrayOutputStream.toByteArray()));
+
+		byte[] binary = JsonLDBinaryCodec.write(JsonLDObject.fromJson("{\"id\":\"did:ex:123\",\"type\":[\"A\",\"B\"],\"nested\":{\"nested\":{\"x\":1}}}").getJsonObject());
+
+		assertNotNull(JsonLDBinaryCodec.read(new ByteArrayInputStream(binary), new JsonLDParseLimits(1024, 3, 3, 2, 64)));
+		assertThrows(IOException.class, () -> JsonLDBinaryCodec.read(new ByteArrayInputStream(binary), new JsonLDParseLimits(16, JsonLDParseLimits.UNLIMITED, JsonLDParseLimits.UNLIMITED, JsonLDParseLimits.UNLIMITED, JsonLDParseLimits.UNLIMITED)));
+		assertThrows(IOException.class, () -> JsonLDBinaryCodec.read(new ByteArrayInputStream(binary), new JsonLDParseLimits(JsonLDParseLimits.UNLIMITED, 2, JsonLDParseLimits.UNLIMITED, JsonLDParseLimits.UNLIMITED, JsonLDParseLimits.UNLIMITED)));
+		assertThrows(IOException.class, () -> JsonLDBinaryCodec.read(new ByteArrayInputStream(binary), new JsonLDParseLimits(JsonLDParseLimits.UNLIMITED, JsonLDParseLimits.UNLIMITED, 2, JsonLDParseLimits.UNLIMITED, JsonLDParseLimits.UNLIMITED)));
+		assertThrows(IOException.class, () -> JsonLDBinaryCodec.read(new ByteArrayInputStream(binary), new JsonLDParseLimits(JsonLDParseLimits.UNLIMITED, JsonLDParseLimits.UNLIMITED, JsonLDParseLimits.UNLIMITED, 1, JsonLDParseLimits.UNLIMITED)));
+		assertThrows(IOException.class, () -> JsonLDBinaryCodec.read(new ByteArrayInputStream(binary), new JsonLDParseLimits(JsonLDParseLimits.UNLIMITED, JsonLDParseLimits.UNLIMITED, JsonLDParseLimits.UNLIMITED, JsonLDParseLimits.UNLIMITED, 3)));
+	}
+}
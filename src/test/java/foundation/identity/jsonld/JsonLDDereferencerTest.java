@@ -0,0 +1,25 @@
+package foundation.identity.jsonld;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonLDDereferencerTest {
+
+	@Test
+	public void testFindByIdInDeepJsonLdObject() throws Exception {
+
+		Map<String, Object> jsonObject = new LinkedHashMap<>(Map.of("id", "did:ex:found"));
+		for (int i = 0; i < 100000; i++) jsonObject = new LinkedHashMap<>(Map.of("nested", i % 2 == 0 ? jsonObject : List.of(jsonObject)));
+
+		JsonLDObject found = JsonLDDereferencer.findByIdInJsonLdObject(JsonLDObject.fromJsonObject(jsonObject), URI.create("did:ex:found"), null);
+
+		assertNotNull(found);
+		assertEquals(URI.create("did:ex:found"), found.getId());
+	}
+}
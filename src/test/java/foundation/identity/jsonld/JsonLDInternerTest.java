@@ -0,0 +1,42 @@
+package foundation.identity.jsonld;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonLDInternerTest {
+
+	@Test
+	public void testInterner() throws Exception {
+
+		JsonLDInterner interner = new JsonLDInterner(16384, 256, true);
+		String json = "{\"@context\":[\"https://www.w3.org/2018/credentials/v1\"],\"type\":\"VerifiableCredential\",\"credentialSubject\":{\"id\":\"did:ex:123\"},\"n\":1.5}";
+
+		JsonLDObject jsonLDObject1 = JsonLDObject.fromJson(json, interner);
+		JsonLDObject jsonLDObject2 = JsonLDObject.fromJson(json, interner);
+
+		assertEquals(JsonLDObject.fromJson(json), jsonLDObject1);
+		assertSame(jsonLDObject1.getType(), jsonLDObject2.getType());
+		assertSame(((List<?>) jsonLDObject1.getJsonObject().get("@context")).get(0), ((List<?>) jsonLDObject2.getJsonObject().get("@context")).get(0));
+
+		JsonLDObject jsonLDObject3 = JsonLDObject.fromJson("{\"credentialSubject\":{\"id\":\"did:ex:123\"}}", interner);
+		JsonLDUtils.jsonLdAdd(jsonLDObject3, "type", "VerifiableCredential");
+		((Map<String, Object>) jsonLDObject3.getJsonObject().get("credentialSubject")).put("name", "x");
+
+		assertEquals("{\"credentialSubject\":{\"id\":\"did:ex:123\",\"name\":\"x\"},\"type\":\"VerifiableCredential\"}", jsonLDObject3.toJson());
+	}
+
+	@Test
+	public void testInternerEviction() throws Exception {
+
+		JsonLDInterner interner = new JsonLDInterner(16, 256, false, Runnable::run);
+		for (int i = 0; i < 1000; i++) interner.internValue("did:ex:" + i);
+
+		for (int i = 0; i < 10; i++) interner.intern(new String("VerifiableCredential"));
+		assertSame(interner.intern(new String("VerifiableCredential")), interner.intern(new String("VerifiableCredential")));
+		assertTrue(interner.getSize() <= 16);
+	}
+}
@@ -0,0 +1,46 @@
+package foundation.identity.jsonld;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonLDObjectDigestTest {
+
+	@Test
+	public void testDigest() throws Exception {
+
+		JsonLDObject jsonLDObject1 = JsonLDObject.fromJson("{\"id\":\"did:ex:123\",\"type\":\"MyObject\"}");
+		JsonLDObject jsonLDObject2 = JsonLDObject.fromJson("{\"type\":\"MyObject\",\"id\":\"did:ex:123\"}");
+		jsonLDObject1.setDigestEquality(true);
+		jsonLDObject2.setDigestEquality(true);
+
+		assertArrayEquals(jsonLDObject1.getDigest(), jsonLDObject2.getDigest());
+		assertEquals(jsonLDObject1, jsonLDObject2);
+		assertEquals(jsonLDObject1.hashCode(), jsonLDObject2.hashCode());
+
+		JsonLDUtils.jsonLdAdd(jsonLDObject2, "name", "x");
+
+		assertNotEquals(jsonLDObject1, jsonLDObject2);
+
+		JsonLDObject jsonLDObject3 = JsonLDObject.fromMap(new LinkedHashMap<>(Map.of("n", 1)));
+		JsonLDObject jsonLDObject4 = JsonLDObject.fromMap(new LinkedHashMap<>(Map.of("n", 1L)));
+		jsonLDObject3.setDigestEquality(true);
+
+		assertNotEquals(jsonLDObject3, jsonLDObject4);
+		jsonLDObject4.setDigestEquality(true);
+		assertArrayEquals(jsonLDObject3.getDigest(), jsonLDObject4.getDigest());
+		assertNotEquals(jsonLDObject3, jsonLDObject4);
+		jsonLDObject4.getJsonObject().put("n", 1);
+		assertEquals(jsonLDObject3, jsonLDObject4);
+		jsonLDObject4.markModified();
+		assertEquals(jsonLDObject3.hashCode(), jsonLDObject4.hashCode());
+
+		jsonLDObject1.getJsonObject().put("name", "x");
+		assertEquals(jsonLDObject1, jsonLDObject2);
+		jsonLDObject1.markModified("name");
+		assertEquals(jsonLDObject2.hashCode(), jsonLDObject1.hashCode());
+	}
+}
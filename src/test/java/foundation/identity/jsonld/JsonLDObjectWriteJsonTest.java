@@ -0,0 +1,41 @@
+package foundation.identity.jsonld;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonLDObjectWriteJsonTest {
+
+	@Test
+	public void testWriteJson() throws Exception {
+
+		JsonLDObject jsonLDObject = JsonLDObject.fromJson("{\"id\":\"did:ex:123\",\"type\":\"MyObject\"}");
+
+		ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+		jsonLDObject.writeJson(byteArrayOutputStream, false);
+		StringWriter stringWriter = new StringWriter();
+		jsonLDObject.writeJson(stringWriter, true);
+
+		assertEquals(jsonLDObject.toJson(), byteArrayOutputStream.toString(StandardCharsets.UTF_8));
+		assertEquals(jsonLDObject.toJson(true), stringWriter.toString());
+
+		JsonLDUtils.jsonLdAdd(jsonLDObject, "name", "x");
+
+		assertEquals("{\"id\":\"did:ex:123\",\"type\":\"MyObject\",\"name\":\"x\"}", jsonLDObject.toJson());
+
+		jsonLDObject.getJsonObject().put("name", "y");
+
+		assertEquals("{\"id\":\"did:ex:123\",\"type\":\"MyObject\",\"name\":\"y\"}", jsonLDObject.toJson());
+
+		ImmutableJsonLDObject immutableJsonLDObject = ImmutableJsonLDObject.fromJsonLDObject(jsonLDObject);
+		StringWriter immutableStringWriter = new StringWriter();
+		immutableJsonLDObject.writeJson(immutableStringWriter, false);
+
+		assertEquals(jsonLDObject.toJson(), immutableStringWriter.toString());
+		assertEquals(jsonLDObject.toJson(), immutableJsonLDObject.toJson());
+	}
+}
@@ -0,0 +1,27 @@
+package foundation.identity.jsonld;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonLDParseLimitsTest {
+
+	@Test
+	public void testParseLimits() throws Exception {
+
+		String json = "{\"id\":\"did:ex:123\",\"type\":[\"A\",\"B\"],\"nested\":{\"nested\":{\"x\":1}}}";
+
+		assertEquals(JsonLDObject.fromJson(json), JsonLDObject.fromJson(json, new JsonLDParseLimits(1024, 3, 3, 2, 64)));
+		assertThrows(RuntimeException.class, () -> JsonLDObject.fromJson(json, new JsonLDParseLimits(16, JsonLDParseLimits.UNLIMITED, JsonLDParseLimits.UNLIMITED, JsonLDParseLimits.UNLIMITED, JsonLDParseLimits.UNLIMITED)));
+		assertThrows(RuntimeException.class, () -> JsonLDObject.fromJson(json, new JsonLDParseLimits(JsonLDParseLimits.UNLIMITED, 2, JsonLDParseLimits.UNLIMITED, JsonLDParseLimits.UNLIMITED, JsonLDParseLimits.UNLIMITED)));
+		assertThrows(RuntimeException.class, () -> JsonLDObject.fromJson(json, new JsonLDParseLimits(JsonLDParseLimits.UNLIMITED, JsonLDParseLimits.UNLIMITED, 2, JsonLDParseLimits.UNLIMITED, JsonLDParseLimits.UNLIMITED)));
+		assertThrows(RuntimeException.class, () -> JsonLDObject.fromJson(json, new JsonLDParseLimits(JsonLDParseLimits.UNLIMITED, JsonLDParseLimits.UNLIMITED, JsonLDParseLimits.UNLIMITED, 1, JsonLDParseLimits.UNLIMITED)));
+
+		for (String notAnObject : List.of("null", "[]", "1")) {
+			assertThrows(RuntimeException.class, () -> JsonLDObject.fromJson(notAnObject));
+			assertThrows(RuntimeException.class, () -> JsonLDObject.fromJson(notAnObject, new JsonLDParseLimits(1024, 3, 3, 2, 64)));
+		}
+	}
+}
@@ -0,0 +1,45 @@
+package foundation.identity.jsonld;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonLDPathTest {
+
+	private static final JsonLDObject jsonLDObject = JsonLDObject.fromJson("{\"type\":[\"VerifiableCredential\",\"UniversityDegreeCredential\"],\"credentialSubject\":[{\"id\":\"did:ex:1\",\"degree\":{\"name\":\"Bachelor\"}},{\"id\":\"did:ex:2\",\"degree\":[{\"name\":\"Master\"}]}],\"https://example.com/term\":\"x\"}");
+
+	@Test
+	public void testSelect() throws Exception {
+
+		assertEquals(List.of("VerifiableCredential", "UniversityDegreeCredential"), JsonLDPath.compile("type").select(jsonLDObject));
+		assertEquals(List.of("Bachelor", "Master"), JsonLDPath.compile("credentialSubject.degree.name").select(jsonLDObject));
+		assertEquals(List.of("did:ex:2"), JsonLDPath.compile("credentialSubject[1].id").select(jsonLDObject));
+		assertEquals(List.of("Bachelor"), JsonLDPath.compile("credentialSubject[0].degree[0].name").select(jsonLDObject));
+		assertEquals(List.of("x"), JsonLDPath.compile("['https://example.com/term']").select(jsonLDObject));
+		assertEquals(List.of(), JsonLDPath.compile("credentialSubject.missing").select(jsonLDObject));
+		assertEquals("did:ex:1", JsonLDPath.compile("credentialSubject.id").selectFirst(jsonLDObject));
+		assertNull(JsonLDPath.compile("issuer").selectFirst(jsonLDObject));
+
+		assertThrows(IllegalArgumentException.class, () -> JsonLDPath.compile("a..b"));
+		assertThrows(IllegalArgumentException.class, () -> JsonLDPath.compile("a[x]"));
+	}
+
+	@Test
+	public void testBatch() throws Exception {
+
+		JsonLDPath type = JsonLDPath.compile("type");
+		JsonLDPath ids = JsonLDPath.compile("credentialSubject.id");
+		JsonLDPath names = JsonLDPath.compile("credentialSubject.degree.name");
+		JsonLDPath firstId = JsonLDPath.compile("credentialSubject[0].id");
+
+		Map<JsonLDPath, List<Object>> results = JsonLDPath.batch(type, ids, names, firstId).select(jsonLDObject);
+
+		assertEquals(type.select(jsonLDObject), results.get(type));
+		assertEquals(ids.select(jsonLDObject), results.get(ids));
+		assertEquals(names.select(jsonLDObject), results.get(names));
+		assertEquals(List.of("did:ex:1"), results.get(firstId));
+	}
+}
@@ -0,0 +1,75 @@
+package foundation.identity.jsonld;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonLDTraversalTest {
+
+	@Test
+	public void testTraversePaths() throws Exception {
+
+		JsonLDObject jsonLDObject = JsonLDObject.fromJson("{\"id\":\"did:ex:123\",\"credentialSubject\":{\"degree\":[{\"name\":\"x\"},[\"y\"]]},\"n\":1}");
+
+		List<String> paths = new ArrayList<>();
+		boolean completed = JsonLDTraversal.traverse(jsonLDObject, new JsonLDTraversal.Visitor() {
+
+			@Override
+			public JsonLDTraversal.Result visitScalar(JsonLDTraversal.Path path, Object value) {
+				paths.add(path + "=" + value);
+				return JsonLDTraversal.Result.CONTINUE;
+			}
+		});
+
+		assertTrue(completed);
+		assertEquals(List.of("id=did:ex:123", "credentialSubject.degree[0].name=x", "credentialSubject.degree[1][0]=y", "n=1"), paths);
+	}
+
+	@Test
+	public void testTraverseTerminate() throws Exception {
+
+		JsonLDObject jsonLDObject = JsonLDObject.fromJson("{\"a\":{\"b\":\"x\"},\"c\":\"y\",\"d\":\"z\"}");
+
+		List<Object> visited = new ArrayList<>();
+		boolean completed = JsonLDTraversal.traverse(jsonLDObject, new JsonLDTraversal.Visitor() {
+
+			@Override
+			public JsonLDTraversal.Result visitMap(JsonLDTraversal.Path path, Map<String, ?> map) {
+				return "a".equals(path.getLastKey()) ? JsonLDTraversal.Result.SKIP_CHILDREN : JsonLDTraversal.Result.CONTINUE;
+			}
+
+			@Override
+			public JsonLDTraversal.Result visitScalar(JsonLDTraversal.Path path, Object value) {
+				visited.add(path.toList());
+				return "y".equals(value) ? JsonLDTraversal.Result.TERMINATE : JsonLDTraversal.Result.CONTINUE;
+			}
+		});
+
+		assertFalse(completed);
+		assertEquals(List.of(List.of("c")), visited);
+	}
+
+	@Test
+	public void testTraverseDeep() throws Exception {
+
+		Map<String, Object> jsonObject = new LinkedHashMap<>(Map.of("id", "did:ex:found"));
+		for (int i = 0; i < 100000; i++) jsonObject = new LinkedHashMap<>(Map.of("nested", i % 2 == 0 ? jsonObject : List.of(jsonObject)));
+
+		int[] maxDepth = new int[1];
+		JsonLDTraversal.traverse(jsonObject, new JsonLDTraversal.Visitor() {
+
+			@Override
+			public JsonLDTraversal.Result visitScalar(JsonLDTraversal.Path path, Object value) {
+				maxDepth[0] = Math.max(maxDepth[0], path.getDepth());
+				return JsonLDTraversal.Result.CONTINUE;
+			}
+		});
+
+		assertEquals(150001, maxDepth[0]);
+	}
+}
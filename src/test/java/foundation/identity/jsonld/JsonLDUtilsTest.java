@@ -0,0 +1,37 @@
+package foundation.identity.jsonld;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class JsonLDUtilsTest {
+
+	@Test
+	public void testJsonLdAddInPlace() throws Exception {
+
+		JsonLDObject jsonLDObject = JsonLDObject.builder().build();
+		JsonLDUtils.jsonLdAdd(jsonLDObject, "verificationMethod", "did:ex:123#key-1");
+		JsonLDUtils.jsonLdAdd(jsonLDObject, "verificationMethod", "did:ex:123#key-2");
+		Object jsonArray = jsonLDObject.getJsonObject().get("verificationMethod");
+		JsonLDUtils.jsonLdAdd(jsonLDObject, "verificationMethod", Map.of("id", "did:ex:123#key-3"));
+		JsonLDUtils.jsonLdAddAll(jsonLDObject, "verificationMethod", List.of("did:ex:123#key-4", Map.of("id", "did:ex:123#key-5")));
+
+		assertSame(jsonArray, jsonLDObject.getJsonObject().get("verificationMethod"));
+		assertEquals(List.of("did:ex:123#key-1", "did:ex:123#key-2", "did:ex:123#key-3", "did:ex:123#key-4", "did:ex:123#key-5"), jsonArray);
+	}
+
+	@Test
+	public void testJsonLdAddDoesNotModifyBase() throws Exception {
+
+		JsonLDObject base = JsonLDObject.fromJson("{\"type\":[\"A\",\"B\"]}");
+		JsonLDObject jsonLDObject = JsonLDObject.builder().base(base).build();
+		JsonLDUtils.jsonLdAdd(jsonLDObject, "type", "C");
+
+		assertEquals(List.of("A", "B"), base.getTypes());
+		assertEquals(List.of("A", "B", "C"), jsonLDObject.getTypes());
+	}
+}
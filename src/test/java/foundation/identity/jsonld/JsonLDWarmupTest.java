@@ -0,0 +1,42 @@
+package foundation.identity.jsonld;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonLDWarmupTest {
+
+	@Test
+	public void testWarmup() throws Exception {
+
+		JsonLDWarmup builtInWarmup = new JsonLDWarmup().iterations(2);
+		assertFalse(builtInWarmup.isWarm());
+		JsonLDWarmup.Result builtInResult = builtInWarmup.run();
+		assertEquals(2, builtInResult.operations());
+		assertEquals(0, builtInResult.failures());
+		assertTrue(builtInWarmup.isWarm());
+		assertFalse(new JsonLDWarmup().isWarm());
+		assertFalse(builtInWarmup.documentLoader(NormalizationAlgorithmTest.documentLoader).isWarm());
+
+		JsonLDWarmup.Result result = new JsonLDWarmup()
+				.addDocument(TestUtil.read(NormalizationAlgorithmTest.class.getResourceAsStream("input.vc.jsonld")))
+				.addDocument(TestUtil.read(NormalizationAlgorithmTest.class.getResourceAsStream("input.vp.jsonld")))
+				.documentLoader(NormalizationAlgorithmTest.documentLoader)
+				.iterations(2)
+				.run();
+		assertEquals(2, result.documents());
+		assertEquals(4, result.operations());
+		assertEquals(0, result.failures());
+
+		// contexts that cannot be loaded are not counted
+		JsonLDWarmup.Result contextsResult = new JsonLDWarmup()
+				.addContexts(List.of(URI.create("https://www.w3.org/2018/credentials/v1"), URI.create("https://example.com/unavailable")))
+				.documentLoader(NormalizationAlgorithmTest.documentLoader)
+				.iterations(1)
+				.run();
+		assertEquals(1, contextsResult.contexts());
+	}
+}
@@ -0,0 +1,57 @@
+package foundation.identity.jsonld;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LazyJsonLDMapTest {
+
+	@Test
+	public void testLazy() throws Exception {
+
+		String json = "{ \"id\" : \"did:ex:123\",\n  \"type\": [\"A\", \"B\"] , \"nested\": {\"x\": [1, 2.5, null, true]}, \"n\": -1 }";
+		JsonLDObject jsonLDObject = JsonLDObject.fromJsonLazy(json.getBytes(StandardCharsets.UTF_8));
+
+		assertEquals(URI.create("did:ex:123"), jsonLDObject.getId());
+		assertEquals(json, jsonLDObject.toJson());
+		assertEquals(List.of("A", "B"), jsonLDObject.getTypes());
+		assertEquals(json, jsonLDObject.toJson());
+		assertEquals(JsonLDObject.fromJson(json), JsonLDObject.fromJsonObject(new LinkedHashMap<>(jsonLDObject.getJsonObject())));
+
+		JsonLDUtils.jsonLdAdd(jsonLDObject, "type", "C");
+
+		assertEquals("{\"id\":\"did:ex:123\",\"type\":[\"A\",\"B\",\"C\"],\"nested\":{\"x\":[1,2.5,null,true]},\"n\":-1}", jsonLDObject.toJson());
+
+		JsonLDObject jsonLDObject2 = JsonLDObject.fromJsonLazy(json.getBytes(StandardCharsets.UTF_8));
+		((Map<String, Object>) jsonLDObject2.getJsonObject().get("nested")).put("y", "z");
+
+		assertEquals("{\"id\":\"did:ex:123\",\"type\":[\"A\",\"B\"],\"nested\":{\"x\":[1,2.5,null,true],\"y\":\"z\"},\"n\":-1}", jsonLDObject2.toJson());
+	}
+
+	@Test
+	public void testLazyPassthrough() throws Exception {
+
+		String json = "{\"@context\": [\"https://www.w3.org/2018/credentials/v1\", \"https://w3id.org/security/v2\"], \"id\": \"did:ex:123\", \"type\": [\"VerifiableCredential\"], \"proof\": {\"jws\": \"x\"}}";
+		JsonLDObject jsonLDObject = JsonLDObject.fromJsonLazy(json.getBytes(StandardCharsets.UTF_8));
+
+		assertEquals(2, jsonLDObject.getContexts().size());
+		assertEquals(List.of("VerifiableCredential"), jsonLDObject.getTypes());
+		assertEquals(URI.create("did:ex:123"), jsonLDObject.getId());
+		assertEquals(json, jsonLDObject.toJson());
+
+		((List<Object>) jsonLDObject.getJsonObject().get("type")).add("VerifiablePresentation");
+
+		assertEquals("{\"@context\":[\"https://www.w3.org/2018/credentials/v1\",\"https://w3id.org/security/v2\"],\"id\":\"did:ex:123\",\"type\":[\"VerifiableCredential\",\"VerifiablePresentation\"],\"proof\":{\"jws\":\"x\"}}", jsonLDObject.toJson());
+
+		JsonLDObject jsonLDObject2 = JsonLDObject.fromJsonLazy(json.getBytes(StandardCharsets.UTF_8));
+		JsonLDUtils.jsonLdRemove(jsonLDObject2, "proof");
+
+		assertEquals("{\"@context\":[\"https://www.w3.org/2018/credentials/v1\",\"https://w3id.org/security/v2\"],\"id\":\"did:ex:123\",\"type\":[\"VerifiableCredential\"]}", jsonLDObject2.toJson());
+	}
+}
@@ -0,0 +1,102 @@
+package foundation.identity.jsonld;
+
+import com.apicatalog.jsonld.JsonLdError;
+import com.apicatalog.jsonld.JsonLdErrorCode;
+import com.apicatalog.jsonld.loader.DocumentLoaderOptions;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NegativeResultCacheTest {
+
+	@Test
+	public void testNegativeResultCache() throws Exception {
+
+		AtomicInteger loads = new AtomicInteger();
+		ConfigurableDocumentLoader documentLoader = new ConfigurableDocumentLoader();
+		assertNull(documentLoader.getNegativeResultCache());
+		documentLoader.enableNegativeResultCache();
+		documentLoader.setEnableHttps(true);
+		documentLoader.setHttpLoader((url, options) -> {
+			loads.incrementAndGet();
+			throw new JsonLdError(JsonLdErrorCode.LOADING_DOCUMENT_FAILED, "Unavailable: " + url);
+		});
+
+		URI failing = URI.create("https://example.com/unavailable");
+		JsonLdError error1 = assertThrows(JsonLdError.class, () -> documentLoader.loadDocument(failing, new DocumentLoaderOptions()));
+		JsonLdError error2 = assertThrows(JsonLdError.class, () -> documentLoader.loadDocument(failing, new DocumentLoaderOptions()));
+		assertEquals(1, loads.get());
+		assertEquals(2, documentLoader.getNegativeResultCache().getCount(failing));
+		assertNotSame(error1, error2);
+		assertEquals(error1.getCode(), error2.getCode());
+
+		documentLoader.setHttpsContexts(List.of(failing));
+		assertEquals(0, documentLoader.getNegativeResultCache().getCount(failing));
+		assertThrows(JsonLdError.class, () -> documentLoader.loadDocument(failing, new DocumentLoaderOptions()));
+		assertEquals(2, loads.get());
+
+		URI rejected = URI.create("ftp://example.com/context");
+		assertNull(documentLoader.loadDocument(rejected, new DocumentLoaderOptions()));
+		assertNull(documentLoader.loadDocument(rejected, new DocumentLoaderOptions()));
+		assertEquals(2, documentLoader.getNegativeResultCache().getCount(rejected));
+	}
+
+	@Test
+	public void testRejectionWarnings() throws Exception {
+
+		List<String> warnings = new CopyOnWriteArrayList<>();
+		Handler handler = new Handler() {
+
+			@Override
+			public void publish(LogRecord record) {
+				warnings.add(record.getMessage());
+			}
+
+			@Override
+			public void flush() {
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+		Logger documentLoaderLogger = Logger.getLogger(ConfigurableDocumentLoader.class.getName());
+		Logger negativeResultCacheLogger = Logger.getLogger(NegativeResultCache.class.getName());
+		documentLoaderLogger.addHandler(handler);
+		negativeResultCacheLogger.addHandler(handler);
+
+		try {
+			ConfigurableDocumentLoader documentLoader = new ConfigurableDocumentLoader();
+			documentLoader.setEnableHttps(true);
+			documentLoader.setHttpsContexts(List.of(URI.create("https://example.com/allowed")));
+
+			// URIs outside the allow list are rejected silently, only URIs without an enabled scheme are logged
+			assertNull(documentLoader.loadDocument(URI.create("https://example.com/other"), new DocumentLoaderOptions()));
+			assertEquals(List.of(), warnings);
+			assertNull(documentLoader.loadDocument(URI.create("ftp://example.com/context"), new DocumentLoaderOptions()));
+			assertEquals(List.of("Cannot load context: ftp://example.com/context"), warnings);
+
+			warnings.clear();
+			documentLoader.enableNegativeResultCache();
+			assertNull(documentLoader.loadDocument(URI.create("https://example.com/other"), new DocumentLoaderOptions()));
+			assertEquals(1, documentLoader.getNegativeResultCache().getCount(URI.create("https://example.com/other")));
+			assertEquals(List.of(), warnings);
+
+			// changing the caches invalidates cached rejections
+			documentLoader.setLocalCache(new HashMap<>());
+			assertEquals(0, documentLoader.getNegativeResultCache().getCount(URI.create("https://example.com/other")));
+		} finally {
+			documentLoaderLogger.removeHandler(handler);
+			negativeResultCacheLogger.removeHandler(handler);
+		}
+	}
+}
@@ -4,15 +4,25 @@ import com.apicatalog.jsonld.JsonLdError;
 import com.apicatalog.jsonld.document.JsonDocument;
 import com.apicatalog.jsonld.http.media.MediaType;
 import com.apicatalog.jsonld.loader.DocumentLoader;
+import com.apicatalog.rdf.canon.RdfCanon;
+import com.apicatalog.rdf.nquads.NQuadsWriter;
+import jakarta.json.JsonArray;
 import org.junit.jupiter.api.Test;
 
 import java.io.InputStreamReader;
+import java.io.StringWriter;
 import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 public class NormalizationAlgorithmTest {
 
@@ -96,4 +106,208 @@ public class NormalizationAlgorithmTest {
 
 		assertEquals(normalizedDocument, jsonLdObject.normalize("urdna2015"));
 	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testNormalizationWithoutBlankNodes() throws Throwable {
+
+		JsonLDObject jsonLdObject = JsonLDObject.fromJson(new InputStreamReader(Objects.requireNonNull(NormalizationAlgorithmTest.class.getResourceAsStream("input.noblank.jsonld"))));
+		jsonLdObject.setDocumentLoader(documentLoader);
+		String normalizedDocument = TestUtil.read(NormalizationAlgorithmTest.class.getResourceAsStream("input.noblank.normalized"));
+
+		RdfCanon rdfCanon = RdfCanon.create("SHA-256");
+		StringWriter stringWriter = new StringWriter();
+		jsonLdObject.toRdfApi().provide(rdfCanon);
+		rdfCanon.provide(new NQuadsWriter(stringWriter));
+
+		assertEquals(normalizedDocument, stringWriter.toString());
+		assertEquals(normalizedDocument, jsonLdObject.normalize("urdna2015"));
+	}
+
+	@Test
+	public void testNormalizationLimits() throws Throwable {
+
+		StringBuilder graph = new StringBuilder();
+		for (int i = 0; i < 16; i++) {
+			if (i > 0) graph.append(",");
+			graph.append("{\"@id\":\"_:b").append(i).append("\",\"p\":{\"@id\":\"_:b").append(i % 8 == 7 ? i - 7 : i + 1).append("\"}}");
+		}
+		String json = "{\"@context\":{\"@vocab\":\"http://example.org/\"},\"@graph\":[" + graph + "]}";
+
+		JsonLDObject jsonLdObject = JsonLDObject.fromJson(json);
+		jsonLdObject.setDocumentLoader(documentLoader);
+		assertEquals(16, jsonLdObject.normalize().lines().count());
+
+		jsonLdObject.setCanonicalizationLimits(new CanonicalizationLimits(10, CanonicalizationLimits.UNLIMITED, CanonicalizationLimits.UNLIMITED, null));
+		assertThrows(JsonLDLimitExceededException.class, jsonLdObject::normalize);
+		assertThrows(JsonLDLimitExceededException.class, jsonLdObject::toDataset);
+
+		jsonLdObject.setCanonicalizationLimits(new CanonicalizationLimits(CanonicalizationLimits.UNLIMITED, 8, CanonicalizationLimits.UNLIMITED, null));
+		assertThrows(JsonLDLimitExceededException.class, jsonLdObject::normalize);
+
+		jsonLdObject.setCanonicalizationLimits(new CanonicalizationLimits(CanonicalizationLimits.UNLIMITED, CanonicalizationLimits.UNLIMITED, 100, null));
+		assertThrows(JsonLDLimitExceededException.class, jsonLdObject::normalize);
+
+		jsonLdObject.setCanonicalizationLimits(new CanonicalizationLimits(CanonicalizationLimits.UNLIMITED, CanonicalizationLimits.UNLIMITED, CanonicalizationLimits.UNLIMITED, Duration.ZERO));
+		assertThrows(JsonLDLimitExceededException.class, jsonLdObject::normalize);
+
+		assertThrows(IllegalArgumentException.class, () -> new CanonicalizationLimits(0, CanonicalizationLimits.UNLIMITED, CanonicalizationLimits.UNLIMITED, null));
+		assertThrows(IllegalArgumentException.class, () -> new CanonicalizationLimits(CanonicalizationLimits.UNLIMITED, -2, CanonicalizationLimits.UNLIMITED, null));
+		assertThrows(IllegalArgumentException.class, () -> new CanonicalizationLimits(CanonicalizationLimits.UNLIMITED, CanonicalizationLimits.UNLIMITED, CanonicalizationLimits.UNLIMITED, Duration.ofSeconds(-1)));
+	}
+
+	@Test
+	public void testCompactDataset() throws Throwable {
+
+		JsonLDObject jsonLdObject = JsonLDObject.fromJson(new InputStreamReader(Objects.requireNonNull(NormalizationAlgorithmTest.class.getResourceAsStream("input.vc.jsonld"))));
+		jsonLdObject.setDocumentLoader(documentLoader);
+
+		JsonLDCompactDataset compactDataset = jsonLdObject.toCompactDataset();
+		StringWriter stringWriter = new StringWriter();
+		compactDataset.provide(new NQuadsWriter(stringWriter));
+
+		assertEquals(jsonLdObject.toNQuads(), stringWriter.toString());
+
+		int rdfType = compactDataset.getTermId("http://www.w3.org/1999/02/22-rdf-syntax-ns#type");
+		int[] typeQuads = compactDataset.match(JsonLDCompactDataset.ANY, rdfType, JsonLDCompactDataset.ANY);
+
+		assertEquals(jsonLdObject.toNQuads().lines().filter(line -> line.contains("<http://www.w3.org/1999/02/22-rdf-syntax-ns#type>")).count(), typeQuads.length);
+		for (int quad : typeQuads) assertEquals(1, compactDataset.match(compactDataset.getSubject(quad), rdfType, compactDataset.getObject(quad)).length);
+		assertEquals(0, compactDataset.match(compactDataset.getTermId("urn:unknown"), JsonLDCompactDataset.ANY, JsonLDCompactDataset.ANY).length);
+		assertTrue(Arrays.stream(typeQuads).anyMatch(quad -> compactDataset.getGraph(quad) == JsonLDCompactDataset.DEFAULT_GRAPH));
+		assertNotEquals(JsonLDCompactDataset.ANY, JsonLDCompactDataset.DEFAULT_GRAPH);
+
+		int[] defaultGraphTypeQuads = compactDataset.match(JsonLDCompactDataset.ANY, rdfType, JsonLDCompactDataset.ANY, JsonLDCompactDataset.DEFAULT_GRAPH);
+		assertTrue(defaultGraphTypeQuads.length > 0 && defaultGraphTypeQuads.length < typeQuads.length);
+		for (int quad : defaultGraphTypeQuads) assertEquals(JsonLDCompactDataset.DEFAULT_GRAPH, compactDataset.getGraph(quad));
+		int namedGraphTypeQuads = Arrays.stream(typeQuads).map(compactDataset::getGraph).filter(graph -> graph != JsonLDCompactDataset.DEFAULT_GRAPH).distinct().map(graph -> compactDataset.match(JsonLDCompactDataset.ANY, rdfType, JsonLDCompactDataset.ANY, graph).length).sum();
+		assertEquals(typeQuads.length, defaultGraphTypeQuads.length + namedGraphTypeQuads);
+
+		for (int term = 0; term < compactDataset.getTermCount(); term++) {
+			int termId = compactDataset.isLiteral(term) ? compactDataset.getLiteralId(compactDataset.getValue(term), compactDataset.getDatatype(term), compactDataset.getLanguage(term), compactDataset.getDirection(term)) : compactDataset.getTermId(compactDataset.getValue(term));
+			assertEquals(term, termId);
+		}
+	}
+
+	@Test
+	public void testIncrementalNormalization() throws Throwable {
+
+		JsonLDObject jsonLdObject = JsonLDObject.fromJson(new InputStreamReader(Objects.requireNonNull(NormalizationAlgorithmTest.class.getResourceAsStream("input.vc.jsonld"))));
+		jsonLdObject.setDocumentLoader(documentLoader);
+		jsonLdObject.setIncrementalNormalization(true);
+		String normalizedDocument = TestUtil.read(NormalizationAlgorithmTest.class.getResourceAsStream("input.vc.normalized"));
+
+		assertEquals(normalizedDocument, jsonLdObject.normalize());
+
+		Object proof = jsonLdObject.getJsonObject().get("proof");
+		JsonLDUtils.jsonLdRemove(jsonLdObject, "proof");
+
+		JsonLDObject fullJsonLdObject = JsonLDObject.fromJson(jsonLdObject.toJson());
+		fullJsonLdObject.setDocumentLoader(documentLoader);
+
+		assertEquals(fullJsonLdObject.normalize(), jsonLdObject.normalize());
+
+		JsonLDUtils.jsonLdAdd(jsonLdObject, "proof", proof);
+
+		assertEquals(normalizedDocument, jsonLdObject.normalize());
+
+		JsonLDObject inputJsonLdObject = JsonLDObject.fromJson(new InputStreamReader(Objects.requireNonNull(NormalizationAlgorithmTest.class.getResourceAsStream("input.jsonld"))));
+		inputJsonLdObject.setDocumentLoader(documentLoader);
+		inputJsonLdObject.setIncrementalNormalization(true);
+
+		assertEquals(TestUtil.read(NormalizationAlgorithmTest.class.getResourceAsStream("input.normalized")), inputJsonLdObject.normalize());
+
+		((Map<String, Object>) jsonLdObject.getJsonObject().get("credentialSubject")).put("id", "did:example:changed");
+		JsonLDObject changedJsonLdObject = JsonLDObject.fromJson(jsonLdObject.toJson());
+		changedJsonLdObject.setDocumentLoader(documentLoader);
+
+		assertEquals(changedJsonLdObject.normalize(), jsonLdObject.normalize());
+
+		String aliased = "{\"@context\":{\"@vocab\":\"http://example.org/\",\"identifier\":\"@id\",\"kind\":\"@type\",\"contents\":\"@graph\"},\"identifier\":\"http://example.org/1\",\"kind\":\"Thing\",\"name\":\"x\",\"contents\":[{\"identifier\":\"http://example.org/2\",\"name\":\"y\"}]}";
+		JsonLDObject aliasedJsonLdObject = JsonLDObject.fromJson(aliased);
+		aliasedJsonLdObject.setIncrementalNormalization(true);
+		aliasedJsonLdObject.getJsonObject().put("name", "z");
+
+		assertEquals(JsonLDObject.fromJson(aliased.replace("\"x\"", "\"z\"")).normalize(), aliasedJsonLdObject.normalize());
+	}
+
+	@Test
+	public void testNormalizationExcludedTerms() throws Throwable {
+
+		JsonLDObject jsonLdObject = JsonLDObject.fromJson(new InputStreamReader(Objects.requireNonNull(NormalizationAlgorithmTest.class.getResourceAsStream("input.vc.jsonld"))));
+		jsonLdObject.setDocumentLoader(documentLoader);
+		String json = jsonLdObject.toJson();
+
+		JsonLDObject withoutProofJsonLdObject = JsonLDObject.fromJson(json);
+		withoutProofJsonLdObject.setDocumentLoader(documentLoader);
+		JsonLDUtils.jsonLdRemove(withoutProofJsonLdObject, "proof");
+
+		assertEquals(withoutProofJsonLdObject.normalize(), jsonLdObject.normalize(Set.of("proof")));
+		assertEquals(withoutProofJsonLdObject.toNQuads(), jsonLdObject.toNQuads(Set.of("proof", "signature")));
+		assertEquals(json, jsonLdObject.toJson());
+
+		jsonLdObject.setIncrementalNormalization(true);
+
+		assertEquals(withoutProofJsonLdObject.normalize(), jsonLdObject.normalize(Set.of("proof")));
+		assertEquals(TestUtil.read(NormalizationAlgorithmTest.class.getResourceAsStream("input.vc.normalized")), jsonLdObject.normalize());
+
+		// alternating between excluded term sets keeps the result for each of them
+		String withoutProof = jsonLdObject.normalize(Set.of("proof"));
+		String withProof = jsonLdObject.normalize();
+		assertSame(withoutProof, jsonLdObject.normalize(Set.of("proof")));
+		assertSame(withProof, jsonLdObject.normalize());
+
+		List<Thread> threads = new ArrayList<>();
+		List<Throwable> failures = new CopyOnWriteArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			Set<String> excludedTopLevelTerms = i % 2 == 0 ? Set.of("proof") : Set.of();
+			String expected = i % 2 == 0 ? withoutProof : withProof;
+			threads.add(new Thread(() -> {
+				try {
+					for (int j = 0; j < 10; j++) assertEquals(expected, jsonLdObject.normalize(excludedTopLevelTerms));
+				} catch (Throwable ex) {
+					failures.add(ex);
+				}
+			}));
+		}
+		for (Thread thread : threads) thread.start();
+		for (Thread thread : threads) thread.join();
+		assertEquals(List.of(), failures);
+	}
+
+	@Test
+	public void testExpansionCaching() throws Throwable {
+
+		JsonLDObject jsonLdObject = JsonLDObject.fromJson(new InputStreamReader(Objects.requireNonNull(NormalizationAlgorithmTest.class.getResourceAsStream("input.vc.jsonld"))));
+		jsonLdObject.setDocumentLoader(documentLoader);
+		jsonLdObject.setExpansionCaching(true);
+		String normalizedDocument = TestUtil.read(NormalizationAlgorithmTest.class.getResourceAsStream("input.vc.normalized"));
+
+		assertSame(jsonLdObject.toExpanded(), jsonLdObject.toExpanded());
+		assertEquals(normalizedDocument, jsonLdObject.normalize());
+
+		JsonLDObject compactedJsonLdObject = jsonLdObject.compact(List.of(URI.create("https://www.w3.org/2018/credentials/v1")));
+
+		assertEquals(URI.create("http://example.edu/credentials/1872"), compactedJsonLdObject.getId());
+		assertEquals("https://example.edu/issuers/565049", compactedJsonLdObject.getJsonObject().get("issuer"));
+		assertEquals(jsonLdObject.getJsonObject().get("credentialSubject"), jsonLdObject.compact().getJsonObject().get("credentialSubject"));
+		assertThrows(IllegalArgumentException.class, () -> JsonLDObject.fromJson("{\"@id\":\"urn:x\"}").compact());
+
+		JsonLDObject invalidJsonLdObject = JsonLDObject.fromJson("{\"@context\":5,\"@id\":\"urn:x\"}");
+		invalidJsonLdObject.setExpansionCaching(true);
+		assertThrows(JsonLDException.class, invalidJsonLdObject::normalize);
+
+		JsonArray expanded = jsonLdObject.toExpanded();
+		JsonLDUtils.jsonLdRemove(jsonLdObject, "proof");
+
+		assertNotSame(expanded, jsonLdObject.toExpanded());
+		assertNotEquals(normalizedDocument, jsonLdObject.normalize());
+
+		// nested edits do not go through markModified(), and are still seen
+		expanded = jsonLdObject.toExpanded();
+		((Map<String, Object>) jsonLdObject.getJsonObject().get("credentialSubject")).put("id", "did:example:changed");
+
+		assertNotSame(expanded, jsonLdObject.toExpanded());
+		assertTrue(jsonLdObject.toExpanded().toString().contains("did:example:changed"));
+	}
 }
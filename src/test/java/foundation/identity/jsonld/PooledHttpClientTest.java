@@ -0,0 +1,78 @@
+package foundation.identity.jsonld;
+
+import com.apicatalog.jsonld.loader.DocumentLoader;
+import com.apicatalog.jsonld.loader.DocumentLoaderOptions;
+import com.apicatalog.jsonld.loader.HttpLoader;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PooledHttpClientTest {
+
+    @Test
+    public void testMaxConcurrencyPerHost() throws Exception {
+
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        HttpServer httpServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        ExecutorService serverExecutorService = Executors.newFixedThreadPool(8);
+        httpServer.setExecutor(serverExecutorService);
+        httpServer.createContext("/context", exchange -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "{\"@context\":{}}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/ld+json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            inFlight.decrementAndGet();
+            exchange.close();
+        });
+        httpServer.start();
+
+        ExecutorService executorService = Executors.newFixedThreadPool(6);
+        try {
+            PooledHttpClient pooledHttpClient = new PooledHttpClient(PooledHttpClient.newHttpClient(), 2, Duration.ofSeconds(10));
+            DocumentLoader documentLoader = new HttpLoader(pooledHttpClient);
+            URI uri = URI.create("http://127.0.0.1:" + httpServer.getAddress().getPort() + "/context");
+
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 6; i++) futures.add(executorService.submit(() -> documentLoader.loadDocument(uri, new DocumentLoaderOptions())));
+            for (Future<?> future : futures) assertNotNull(future.get());
+
+            assertTrue(maxInFlight.get() <= 2);
+            assertEquals(0, pooledHttpClient.getHostCount());
+
+            PooledHttpClient timeoutPooledHttpClient = (PooledHttpClient) pooledHttpClient.timeout(Duration.ofSeconds(1));
+            assertNotSame(pooledHttpClient, timeoutPooledHttpClient);
+            assertNotNull(new HttpLoader(timeoutPooledHttpClient).loadDocument(uri, new DocumentLoaderOptions()));
+            assertEquals(0, pooledHttpClient.getHostCount());
+        } finally {
+            executorService.shutdownNow();
+            httpServer.stop(0);
+            serverExecutorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testDefaultLoadersAreShared() {
+        assertSame(ConfigurableDocumentLoader.getDefaultHttpLoader(), ConfigurableDocumentLoader.getDefaultHttpLoader());
+        assertSame(ConfigurableDocumentLoader.getDefaultFileLoader(), ConfigurableDocumentLoader.getDefaultFileLoader());
+    }
+}
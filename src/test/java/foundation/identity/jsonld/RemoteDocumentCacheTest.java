@@ -0,0 +1,190 @@
+package foundation.identity.jsonld;
+
+import com.apicatalog.jsonld.JsonLdError;
+import com.apicatalog.jsonld.document.Document;
+import com.apicatalog.jsonld.loader.DocumentLoaderOptions;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RemoteDocumentCacheTest {
+
+    private HttpServer httpServer;
+    private final AtomicInteger contextRequests = new AtomicInteger();
+    private final AtomicInteger notModifiedResponses = new AtomicInteger();
+    private final AtomicInteger missingRequests = new AtomicInteger();
+    private final AtomicInteger loopRequests = new AtomicInteger();
+    private final AtomicLong time = new AtomicLong();
+    private final AtomicReference<String> accept = new AtomicReference<>();
+
+    @BeforeEach
+    public void before() throws Exception {
+
+        this.httpServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.httpServer.createContext("/context", exchange -> {
+            this.contextRequests.incrementAndGet();
+            this.accept.set(exchange.getRequestHeaders().getFirst("Accept"));
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            exchange.getResponseHeaders().add("Cache-Control", "public, max-age=60");
+            if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                this.notModifiedResponses.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                byte[] body = "{\"@context\":{\"name\":\"https://schema.org/name\"}}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/ld+json");
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            }
+            exchange.close();
+        });
+        this.httpServer.createContext("/missing", exchange -> {
+            this.missingRequests.incrementAndGet();
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        this.httpServer.createContext("/redirect", exchange -> {
+            exchange.getResponseHeaders().add("Location", "/context");
+            exchange.sendResponseHeaders(302, -1);
+            exchange.close();
+        });
+        this.httpServer.createContext("/loop", exchange -> {
+            this.loopRequests.incrementAndGet();
+            exchange.getResponseHeaders().add("Location", "/loop");
+            exchange.sendResponseHeaders(301, -1);
+            exchange.close();
+        });
+        this.httpServer.createContext("/page", exchange -> {
+            byte[] body = "<html></html>".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "text/html");
+            exchange.getResponseHeaders().add("Link", "</context>; rel=\"alternate\"; type=\"application/ld+json\"");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        this.httpServer.start();
+    }
+
+    @AfterEach
+    public void after() {
+        this.httpServer.stop(0);
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://127.0.0.1:" + this.httpServer.getAddress().getPort() + path);
+    }
+
+    private RemoteDocumentCache remoteDocumentCache() {
+        return new RemoteDocumentCache(HttpClient.newHttpClient(), 100, Duration.ofSeconds(10), Duration.ofHours(1), Duration.ofDays(1), Duration.ofMinutes(1), Duration.ofSeconds(5), Runnable::run, this.time::get);
+    }
+
+    @Test
+    public void testRevalidation() throws Exception {
+
+        RemoteDocumentCache remoteDocumentCache = this.remoteDocumentCache();
+
+        Document document = remoteDocumentCache.loadDocument(this.uri("/context"));
+        assertNotNull(document);
+        assertSame(document, remoteDocumentCache.loadDocument(this.uri("/context")));
+        assertEquals(1, this.contextRequests.get());
+
+        // still fresh according to max-age, so the refresh does not go to the network
+        this.time.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertSame(document, remoteDocumentCache.loadDocument(this.uri("/context")));
+        assertEquals(1, this.contextRequests.get());
+
+        // stale, so the refresh revalidates with the ETag and keeps the document
+        this.time.addAndGet(Duration.ofSeconds(60).toNanos());
+        assertSame(document, remoteDocumentCache.loadDocument(this.uri("/context")));
+        assertSame(document, remoteDocumentCache.loadDocument(this.uri("/context")));
+        assertEquals(2, this.contextRequests.get());
+        assertEquals(1, this.notModifiedResponses.get());
+    }
+
+    @Test
+    public void testNegativeCaching() throws Exception {
+
+        RemoteDocumentCache remoteDocumentCache = this.remoteDocumentCache();
+
+        assertThrows(JsonLdError.class, () -> remoteDocumentCache.loadDocument(this.uri("/missing")));
+        assertThrows(JsonLdError.class, () -> remoteDocumentCache.loadDocument(this.uri("/missing")));
+        assertEquals(1, this.missingRequests.get());
+
+        this.time.addAndGet(Duration.ofMinutes(2).toNanos());
+        assertThrows(JsonLdError.class, () -> remoteDocumentCache.loadDocument(this.uri("/missing")));
+        assertEquals(2, this.missingRequests.get());
+    }
+
+    @Test
+    public void testRedirections() throws Exception {
+
+        RemoteDocumentCache remoteDocumentCache = this.remoteDocumentCache();
+
+        Document redirected = remoteDocumentCache.loadDocument(this.uri("/redirect"));
+        assertEquals(this.uri("/context"), redirected.getDocumentUrl());
+
+        Document alternate = remoteDocumentCache.loadDocument(this.uri("/page"));
+        assertEquals(this.uri("/context"), alternate.getDocumentUrl());
+        assertTrue(alternate.getJsonContent().isPresent());
+
+        assertThrows(JsonLdError.class, () -> remoteDocumentCache.loadDocument(this.uri("/loop")));
+        assertEquals(RemoteDocumentCache.MAX_REDIRECTIONS + 1, this.loopRequests.get());
+    }
+
+    @Test
+    public void testDocumentLoader() throws Exception {
+
+        RemoteDocumentCache remoteDocumentCache = this.remoteDocumentCache();
+        DocumentCacheStatistics documentCacheStatistics = new DocumentCacheStatistics();
+
+        ConfigurableDocumentLoader documentLoader = new ConfigurableDocumentLoader();
+        documentLoader.setEnableHttp(true);
+        documentLoader.setRemoteCache(Caffeine.newBuilder().build());
+        documentLoader.setDocumentCacheStatistics(documentCacheStatistics);
+        documentLoader.setRemoteDocumentCache(remoteDocumentCache);
+
+        // the remote document cache is the http loader, and the remote cache is not used in front of it
+        assertSame(remoteDocumentCache, documentLoader.getHttpLoader());
+        Document document = documentLoader.loadDocument(this.uri("/context"), new DocumentLoaderOptions());
+        assertSame(document, documentLoader.loadDocument(this.uri("/context"), new DocumentLoaderOptions()));
+        assertEquals(1, this.contextRequests.get());
+        assertEquals(0, documentLoader.getRemoteCache().estimatedSize());
+        assertEquals(1, documentCacheStatistics.getEntry(this.uri("/context")).getLoads());
+        assertEquals(1, documentCacheStatistics.getEntry(this.uri("/context")).getHits());
+
+        // the request profile is sent, and documents loaded with it are cached apart
+        DocumentLoaderOptions options = new DocumentLoaderOptions();
+        options.setRequestProfile(List.of("http://www.w3.org/ns/json-ld#context"));
+        assertNotSame(document, documentLoader.loadDocument(this.uri("/context"), options));
+        assertEquals(2, this.contextRequests.get());
+        assertTrue(this.accept.get().startsWith("application/ld+json;profile=\"http://www.w3.org/ns/json-ld#context\""));
+
+        // another http loader replaces the remote document cache
+        documentLoader.setHttpLoader(ConfigurableDocumentLoader.getDefaultHttpLoader());
+        assertNull(documentLoader.getRemoteDocumentCache());
+    }
+
+    @Test
+    public void testPooledHttpClient() throws Exception {
+
+        PooledHttpClient pooledHttpClient = new PooledHttpClient(PooledHttpClient.newHttpClient(), 1, Duration.ofSeconds(5));
+        RemoteDocumentCache remoteDocumentCache = new RemoteDocumentCache(pooledHttpClient);
+
+        // the redirection is followed by the cache, with one permit per request
+        assertEquals(this.uri("/context"), remoteDocumentCache.loadDocument(this.uri("/redirect")).getDocumentUrl());
+        assertEquals(0, pooledHttpClient.getHostCount());
+    }
+}